@@ -0,0 +1,68 @@
+package io.extr.kafka.connect.logminer;
+
+import java.sql.Timestamp;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import io.extr.kafka.connect.logminer.RedoSQLDecoder.ColumnValues;
+
+/**
+ * Compares the JSqlParser path, with values converted through substrings and
+ * the JDK parsers, against the single pass decoder converting values in place
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RedoDecodeBenchmark {
+	private static final String UPDATE = "update \"SCOTT\".\"EMP\" set \"SAL\" = '1250.5', "
+			+ "\"HIREDATE\" = TO_DATE('1981-02-22 00:00:00', 'YYYY-MM-DD HH24:MI:SS') "
+			+ "where \"EMPNO\" = '7521' and \"ENAME\" = 'WARD' and \"SAL\" = '1250' and \"COMM\" IS NULL";
+	private static final String DATE_FORMAT_SUFFIX = "', 'YYYY-MM-DD HH24:MI:SS')";
+
+	private final RedoSQLDecoder decoder = new RedoSQLDecoder();
+
+	@Benchmark
+	public void sqlParser(Blackhole blackhole) throws Exception {
+		Map<String, Map<String, String>> changes = LogMinerSQLParser.parseRedoSQL(UPDATE);
+		Map<String, String> after = changes.get(LogMinerSourceConnectorConstants.FIELD_AFTER_DATA_ROW);
+		Map<String, String> before = changes.get(LogMinerSourceConnectorConstants.FIELD_BEFORE_DATA_ROW);
+		blackhole.consume(Double.parseDouble(after.get("SAL")));
+		String hireDate = after.get("HIREDATE");
+		blackhole.consume(Timestamp.valueOf(hireDate.substring("TO_DATE('".length(),
+				hireDate.length() - DATE_FORMAT_SUFFIX.length())));
+		blackhole.consume(Long.parseLong(before.get("EMPNO")));
+		blackhole.consume(before.get("ENAME"));
+		blackhole.consume(Double.parseDouble(before.get("SAL")));
+	}
+
+	@Benchmark
+	public void redoDecoder(Blackhole blackhole) throws Exception {
+		decoder.decode(UPDATE);
+		ColumnValues after = decoder.getAfter();
+		ColumnValues before = decoder.getBefore();
+		blackhole.consume(convert(ColumnConverter.FLOAT64, after, 0));
+		blackhole.consume(convert(ColumnConverter.TIMESTAMP, after, 1));
+		blackhole.consume(convert(ColumnConverter.INT64, before, 0));
+		blackhole.consume(convert(ColumnConverter.STRING, before, 1));
+		blackhole.consume(convert(ColumnConverter.FLOAT64, before, 2));
+	}
+
+	private static Object convert(ColumnConverter converter, ColumnValues values, int index) {
+		return converter.convert(values.getValueSource(index), values.getValueStart(index),
+				values.getValueEnd(index));
+	}
+}
@@ -0,0 +1,73 @@
+/**
+ * Copyright 2018 David Arnold
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ **/
+
+package io.extr.kafka.connect.logminer;
+
+import org.apache.kafka.connect.data.Schema;
+
+/**
+ * Converts a redo SQL literal to the Connect value of one column. Converters
+ * are chosen once per column from the column's schema type, so optional and
+ * required schemas of a type convert alike. The literal is passed as a region
+ * of its source, usually the redo SQL itself, and is parsed in place.
+ */
+@FunctionalInterface
+public interface ColumnConverter {
+	ColumnConverter STRING = (source, start, end) -> source.substring(start, end);
+	ColumnConverter INT8 = (source, start, end) -> (byte) LiteralDecoder.parseLong(source, start, end,
+			Byte.MIN_VALUE, Byte.MAX_VALUE);
+	ColumnConverter INT16 = (source, start, end) -> (short) LiteralDecoder.parseLong(source, start, end,
+			Short.MIN_VALUE, Short.MAX_VALUE);
+	ColumnConverter INT32 = (source, start, end) -> (int) LiteralDecoder.parseLong(source, start, end,
+			Integer.MIN_VALUE, Integer.MAX_VALUE);
+	ColumnConverter INT64 = LiteralDecoder::parseLong;
+	ColumnConverter FLOAT32 = (source, start, end) -> (float) LiteralDecoder.parseDouble(source, start, end);
+	ColumnConverter FLOAT64 = LiteralDecoder::parseDouble;
+	ColumnConverter TIMESTAMP = LiteralDecoder::parseTimestamp;
+
+	/**
+	 * @param source
+	 *            string holding the literal text of a non-null value
+	 * @param start
+	 *            index of the first character of the literal
+	 * @param end
+	 *            index after the last character of the literal
+	 * @return the value for the column's schema
+	 */
+	Object convert(String source, int start, int end);
+
+	static ColumnConverter forSchema(Schema schema) {
+		if (org.apache.kafka.connect.data.Timestamp.LOGICAL_NAME.equals(schema.name())) {
+			return TIMESTAMP;
+		}
+		switch (schema.type()) {
+		case INT8:
+			return INT8;
+		case INT16:
+			return INT16;
+		case INT32:
+			return INT32;
+		case INT64:
+			return INT64;
+		case FLOAT32:
+			return FLOAT32;
+		case FLOAT64:
+			return FLOAT64;
+		default:
+			return STRING;
+		}
+	}
+}
@@ -0,0 +1,88 @@
+/**
+ * Copyright 2018 David Arnold
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ **/
+
+package io.extr.kafka.connect.logminer;
+
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.extr.kafka.connect.logminer.dialect.BaseLogMinerDialect;
+import io.extr.kafka.connect.logminer.dialect.LogMinerDialect;
+
+/**
+ * A single never-ending cursor over a CONTINUOUS_MINE LogMiner session
+ */
+public class ContinuousMiningCursorSource implements MiningCursorSource {
+	private static final Logger LOGGER = LoggerFactory.getLogger(ContinuousMiningCursorSource.class);
+
+	private final Connection connection;
+	private final BaseLogMinerDialect dialect;
+	private final PreparedStatement miningQuery;
+	private boolean opened;
+
+	public ContinuousMiningCursorSource(Connection connection, BaseLogMinerDialect dialect,
+			PreparedStatement miningQuery, long startSCN, boolean committedDataOnly) throws SQLException {
+		this.connection = connection;
+		this.dialect = dialect;
+		this.miningQuery = miningQuery;
+
+		LOGGER.debug("Starting continuous mining at SCN {}", startSCN);
+		try (CallableStatement s = connection.prepareCall(dialect.getStatement(committedDataOnly
+				? LogMinerDialect.Statement.START_MINING : LogMinerDialect.Statement.START_MINING_UNCOMMITTED))) {
+			s.setLong(1, startSCN);
+			s.execute();
+		}
+	}
+
+	@Override
+	public ResultSet open() throws SQLException {
+		if (opened) {
+			return null;
+		}
+		opened = true;
+		LOGGER.debug("Mining query execution start");
+		return miningQuery.executeQuery();
+	}
+
+	@Override
+	public void completed() {
+		LOGGER.info("Continuous mining query returned all rows");
+	}
+
+	@Override
+	public long getCompletedSCN() {
+		/* The one cursor only completes once mining is over */
+		return 0L;
+	}
+
+	@Override
+	public void stop() {
+	}
+
+	@Override
+	public void close() throws SQLException {
+		try (CallableStatement s = connection
+				.prepareCall(dialect.getStatement(LogMinerDialect.Statement.STOP_MINING))) {
+			s.execute();
+		}
+	}
+}
@@ -0,0 +1,127 @@
+/**
+ * Copyright 2018 David Arnold
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ **/
+
+package io.extr.kafka.connect.logminer;
+
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Tunes the mining query JDBC fetch size from what the fetcher observes. A
+ * {@code ResultSet.next()} call that takes noticeably longer than a local
+ * buffer read is counted as a round-trip; after every few round-trips the
+ * fetch size is doubled if fetches are coming back full and the poll side is
+ * keeping up, or shrunk towards the observed rows per round-trip when traffic
+ * is light. The result is bounded by the configured minimum and maximum, and
+ * by the number of rows that fit the byte budget at the observed row size.
+ * 
+ * Not thread safe; owned by the fetcher thread.
+ */
+public class FetchSizeController {
+	private static final Logger LOGGER = LoggerFactory.getLogger(FetchSizeController.class);
+
+	private static final long ROUND_TRIP_THRESHOLD_NANOS = TimeUnit.MICROSECONDS.toNanos(200);
+	private static final int EVALUATION_ROUND_TRIPS = 8;
+	private static final int ROW_OVERHEAD_BYTES = 128;
+	private static final double FULL_FETCH_RATIO = 0.9;
+	private static final double SPARSE_FETCH_RATIO = 0.25;
+	private static final double BACKLOG_FILL_RATIO = 0.5;
+
+	private final int minimum;
+	private final int maximum;
+	private final long maximumBytes;
+	private final LogMinerMetrics metrics;
+
+	private int fetchSize;
+	private long windowRoundTrips;
+	private long windowRows;
+	private long windowBytes;
+
+	public FetchSizeController(int initial, int minimum, int maximum, long maximumBytes, LogMinerMetrics metrics) {
+		this.minimum = Math.max(1, minimum);
+		this.maximum = Math.max(this.minimum, maximum);
+		this.maximumBytes = maximumBytes;
+		this.metrics = metrics;
+		this.fetchSize = Math.max(this.minimum, Math.min(this.maximum, initial));
+		metrics.setFetchSize(fetchSize);
+	}
+
+	public int getFetchSize() {
+		return fetchSize;
+	}
+
+	/**
+	 * @param elapsedNanos time spent in a single {@code ResultSet.next()} call
+	 */
+	public void recordNext(long elapsedNanos) {
+		if (elapsedNanos >= ROUND_TRIP_THRESHOLD_NANOS) {
+			windowRoundTrips++;
+			metrics.fetchRoundTrip();
+		}
+	}
+
+	/**
+	 * @param redoLength length of the SQL_REDO fragment carried by a fetched row
+	 */
+	public void recordRow(int redoLength) {
+		windowRows++;
+		windowBytes += ROW_OVERHEAD_BYTES + 2L * redoLength;
+	}
+
+	/**
+	 * Re-evaluate the fetch size once enough round-trips have been observed
+	 * 
+	 * @param bufferedRows   rows waiting for the poll thread
+	 * @param bufferCapacity capacity of the fetch buffer
+	 * @return the new fetch size, or 0 if it is unchanged
+	 */
+	public int adjust(int bufferedRows, int bufferCapacity) {
+		if (windowRoundTrips < EVALUATION_ROUND_TRIPS) {
+			return 0;
+		}
+
+		double rowsPerRoundTrip = (double) windowRows / windowRoundTrips;
+		double bytesPerRow = windowRows == 0 ? ROW_OVERHEAD_BYTES : (double) windowBytes / windowRows;
+		metrics.setFetchObservations(rowsPerRoundTrip, bytesPerRow);
+		windowRoundTrips = 0;
+		windowRows = 0;
+		windowBytes = 0;
+
+		double backlog = (double) bufferedRows / bufferCapacity;
+		int target = fetchSize;
+		if (rowsPerRoundTrip >= fetchSize * FULL_FETCH_RATIO) {
+			if (backlog < BACKLOG_FILL_RATIO) {
+				target = fetchSize * 2;
+			}
+		} else if (rowsPerRoundTrip < fetchSize * SPARSE_FETCH_RATIO) {
+			target = Math.max((int) Math.ceil(rowsPerRoundTrip * 2), fetchSize / 2);
+		}
+
+		long byteLimit = (long) (maximumBytes / bytesPerRow);
+		target = (int) Math.max(minimum, Math.min(Math.min(maximum, byteLimit), target));
+		if (target == fetchSize) {
+			return 0;
+		}
+
+		LOGGER.debug("Fetch size {} -> {} (rows/round-trip {}, bytes/row {}, buffered {}/{})", fetchSize, target,
+				rowsPerRoundTrip, bytesPerRow, bufferedRows, bufferCapacity);
+		metrics.fetchSizeChanged(fetchSize, target);
+		fetchSize = target;
+		return target;
+	}
+}
@@ -0,0 +1,220 @@
+/**
+ * Copyright 2018 David Arnold
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ **/
+
+package io.extr.kafka.connect.logminer;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Parses numeric and datetime literals from a region of the redo SQL without
+ * first copying it into a string. Datetimes are expected in the canonical
+ * {@code YYYY-MM-DD HH24:MI:SS.FF[ TZH:TZM]} form the session NLS settings fix;
+ * anything the fast paths do not cover is handed to the JDK parsers.
+ */
+public final class LiteralDecoder {
+	private static final int MAX_EXACT_DIGITS = 15;
+	private static final double[] POWERS_OF_TEN = new double[MAX_EXACT_DIGITS + 1];
+	private static final int[] NANO_SCALE = { 100000000, 10000000, 1000000, 100000, 10000, 1000, 100, 10, 1 };
+
+	static {
+		POWERS_OF_TEN[0] = 1d;
+		for (int i = 1; i < POWERS_OF_TEN.length; i++) {
+			POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10d;
+		}
+	}
+
+	private LiteralDecoder() {
+	}
+
+	public static long parseLong(String source, int start, int end) {
+		while (start < end && source.charAt(start) == ' ') {
+			start++;
+		}
+		while (end > start && source.charAt(end - 1) == ' ') {
+			end--;
+		}
+		if (start == end) {
+			throw invalid(source, start, end);
+		}
+
+		int i = start;
+		boolean negative = false;
+		char first = source.charAt(i);
+		if (first == '-' || first == '+') {
+			negative = first == '-';
+			if (++i == end) {
+				throw invalid(source, start, end);
+			}
+		}
+
+		long limit = negative ? Long.MIN_VALUE : -Long.MAX_VALUE;
+		long multiplyLimit = limit / 10;
+		long result = 0;
+		for (; i < end; i++) {
+			int digit = source.charAt(i) - '0';
+			if (digit < 0 || digit > 9 || result < multiplyLimit) {
+				throw invalid(source, start, end);
+			}
+			result *= 10;
+			if (result < limit + digit) {
+				throw invalid(source, start, end);
+			}
+			result -= digit;
+		}
+		return negative ? result : -result;
+	}
+
+	public static long parseLong(String source, int start, int end, long min, long max) {
+		long value = parseLong(source, start, end);
+		if (value < min || value > max) {
+			throw invalid(source, start, end);
+		}
+		return value;
+	}
+
+	/**
+	 * Plain decimals of up to 15 digits are a long mantissa divided by an exact
+	 * power of ten, which rounds correctly; exponents and longer values go to
+	 * {@link Double#parseDouble(String)}
+	 */
+	public static double parseDouble(String source, int start, int end) {
+		int i = start;
+		while (i < end && source.charAt(i) == ' ') {
+			i++;
+		}
+		boolean negative = false;
+		if (i < end && (source.charAt(i) == '-' || source.charAt(i) == '+')) {
+			negative = source.charAt(i) == '-';
+			i++;
+		}
+
+		long mantissa = 0;
+		int digits = 0;
+		int scale = -1;
+		int last = end;
+		while (last > i && source.charAt(last - 1) == ' ') {
+			last--;
+		}
+		for (; i < last; i++) {
+			char c = source.charAt(i);
+			if (c >= '0' && c <= '9') {
+				if (++digits > MAX_EXACT_DIGITS) {
+					return Double.parseDouble(source.substring(start, end));
+				}
+				mantissa = mantissa * 10 + (c - '0');
+				if (scale >= 0) {
+					scale++;
+				}
+			} else if (c == '.' && scale < 0) {
+				scale = 0;
+			} else {
+				return Double.parseDouble(source.substring(start, end));
+			}
+		}
+		if (digits == 0) {
+			throw invalid(source, start, end);
+		}
+
+		double value = scale > 0 ? mantissa / POWERS_OF_TEN[scale] : mantissa;
+		return negative ? -value : value;
+	}
+
+	/**
+	 * Parses {@code YYYY-MM-DD[ HH:MI:SS[.F...]]} in the JVM's default time zone,
+	 * as {@link Timestamp#valueOf(String)} does, or at the offset that follows it
+	 * as {@code +HH:MM} or {@code -HH:MM}
+	 */
+	public static Timestamp parseTimestamp(String source, int start, int end) {
+		while (start < end && source.charAt(start) == ' ') {
+			start++;
+		}
+		while (end > start && source.charAt(end - 1) == ' ') {
+			end--;
+		}
+		if (end - start >= 17 && source.charAt(end - 7) == ' ' && source.charAt(end - 3) == ':') {
+			char sign = source.charAt(end - 6);
+			int hours = digits(source, end - 5, 2);
+			int minutes = digits(source, end - 2, 2);
+			if ((sign == '+' || sign == '-') && (hours | minutes) >= 0) {
+				ZoneOffset offset = sign == '+' ? ZoneOffset.ofHoursMinutes(hours, minutes)
+						: ZoneOffset.ofHoursMinutes(-hours, -minutes);
+				return Timestamp.from(parseLocalDateTime(source, start, end - 7).toInstant(offset));
+			}
+		}
+		return Timestamp.valueOf(parseLocalDateTime(source, start, end));
+	}
+
+	private static LocalDateTime parseLocalDateTime(String source, int start, int end) {
+		while (end > start && source.charAt(end - 1) == ' ') {
+			end--;
+		}
+		int length = end - start;
+		if (length != 10 && (length < 19 || length == 20 || length > 29) || source.charAt(start + 4) != '-'
+				|| source.charAt(start + 7) != '-') {
+			return Timestamp.valueOf(source.substring(start, end)).toLocalDateTime();
+		}
+
+		int year = digits(source, start, 4);
+		int month = digits(source, start + 5, 2);
+		int day = digits(source, start + 8, 2);
+		int hour = 0;
+		int minute = 0;
+		int second = 0;
+		int nanos = 0;
+		if (length > 10) {
+			if (source.charAt(start + 10) != ' ' || source.charAt(start + 13) != ':'
+					|| source.charAt(start + 16) != ':') {
+				return Timestamp.valueOf(source.substring(start, end)).toLocalDateTime();
+			}
+			hour = digits(source, start + 11, 2);
+			minute = digits(source, start + 14, 2);
+			second = digits(source, start + 17, 2);
+			if (length > 19) {
+				if (source.charAt(start + 19) != '.') {
+					return Timestamp.valueOf(source.substring(start, end)).toLocalDateTime();
+				}
+				int fraction = length - 20;
+				nanos = digits(source, start + 20, fraction) * NANO_SCALE[fraction - 1];
+			}
+		}
+		if ((year | month | day | hour | minute | second | nanos) < 0) {
+			return Timestamp.valueOf(source.substring(start, end)).toLocalDateTime();
+		}
+		return LocalDateTime.of(year, month, day, hour, minute, second, nanos);
+	}
+
+	/**
+	 * @return the value of {@code count} decimal digits, or -1 if any is not a
+	 *         digit
+	 */
+	private static int digits(String source, int start, int count) {
+		int value = 0;
+		for (int i = start; i < start + count; i++) {
+			int digit = source.charAt(i) - '0';
+			if (digit < 0 || digit > 9) {
+				return -1;
+			}
+			value = value * 10 + digit;
+		}
+		return value;
+	}
+
+	private static NumberFormatException invalid(String source, int start, int end) {
+		return new NumberFormatException("For input string: \"" + source.substring(start, end) + "\"");
+	}
+}
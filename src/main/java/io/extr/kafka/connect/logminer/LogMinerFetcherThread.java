@@ -0,0 +1,396 @@
+/**
+ * Copyright 2018 David Arnold
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ **/
+
+package io.extr.kafka.connect.logminer;
+
+import java.io.IOException;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.extr.kafka.connect.logminer.dialect.BaseLogMinerDialect;
+import io.extr.kafka.connect.logminer.model.LogMinerRow;
+import io.extr.kafka.connect.logminer.util.RingBuffer;
+
+/**
+ * Thread that owns the mining query ResultSet, assembling rows and handing them
+ * to the task poll thread through a bounded ring buffer so that database fetch
+ * round-trips overlap with event conversion.
+ */
+public class LogMinerFetcherThread extends Thread {
+	private static final Logger LOGGER = LoggerFactory.getLogger(LogMinerFetcherThread.class);
+
+	private static final long OFFER_WAIT_MS = 100L;
+	/* Largest redo assembly buffer kept between rows; longer statements release theirs */
+	private static final int RETAINED_REDO_CAPACITY = 64 * 1024;
+
+	private final MiningCursorSource cursorSource;
+	private final RingBuffer<LogMinerRow> buffer;
+	private final FetchSizeController fetchSizeController;
+	private final MiningObjectFilter objectFilter;
+	private final TransactionBuffer transactionBuffer;
+	private final LogMinerMetrics metrics;
+	private final int maxRedoSize;
+	private final boolean dropOversizeRedo;
+	private final StringBuilder redoBuilder = new StringBuilder();
+	private final CountDownLatch shutdownLatch;
+	private volatile SQLException failure;
+
+	/**
+	 * @param fetchSizeController adaptive fetch size control, or null to keep the
+	 *                            statement fetch size
+	 * @param objectFilter        per-table offset filter for compact mining
+	 *                            queries, or null if the query applies them
+	 * @param transactionBuffer   buffer for the changes of open transactions
+	 *                            when mining uncommitted data, or null when
+	 *                            mining committed data only
+	 * @param maxRedoSize         largest assembled redo statement, in characters
+	 * @param dropOversizeRedo    whether rows with larger statements are dropped
+	 *                            rather than truncated
+	 */
+	public LogMinerFetcherThread(MiningCursorSource cursorSource, RingBuffer<LogMinerRow> buffer,
+			FetchSizeController fetchSizeController, MiningObjectFilter objectFilter,
+			TransactionBuffer transactionBuffer, LogMinerMetrics metrics, int maxRedoSize, boolean dropOversizeRedo) {
+		super("logminer-fetcher");
+		setDaemon(true);
+		this.cursorSource = cursorSource;
+		this.buffer = buffer;
+		this.fetchSizeController = fetchSizeController;
+		this.objectFilter = objectFilter;
+		this.transactionBuffer = transactionBuffer;
+		this.metrics = metrics;
+		this.maxRedoSize = maxRedoSize;
+		this.dropOversizeRedo = dropOversizeRedo;
+		this.shutdownLatch = new CountDownLatch(1);
+	}
+
+	@Override
+	public void run() {
+		LOGGER.info("Starting thread to fetch mined rows");
+		try {
+			while (isRunning()) {
+				try (ResultSet rs = cursorSource.open()) {
+					if (rs == null) {
+						break;
+					}
+					LOGGER.debug("Mining query ResultSet opened");
+					fetch(rs);
+				}
+				if (isRunning()) {
+					LOGGER.debug("Mining query ResultSet exhausted");
+					cursorSource.completed();
+				}
+			}
+		} catch (SQLException e) {
+			if (isRunning()) {
+				LOGGER.error("Mining query fetch failed", e);
+				failure = e;
+			}
+		} catch (InterruptedException e) {
+			LOGGER.debug("Fetcher thread interrupted");
+		}
+		LOGGER.info("Fetcher thread stopped");
+	}
+
+	public boolean isRunning() {
+		return shutdownLatch.getCount() > 0;
+	}
+
+	/**
+	 * Rethrow any error that terminated the fetch, on the calling thread
+	 * 
+	 * @throws SQLException
+	 */
+	public void checkFailure() throws SQLException {
+		SQLException e = failure;
+		if (e != null) {
+			throw new SQLException("Mining query fetch failed", e);
+		}
+	}
+
+	public void shutdown() {
+		LOGGER.info("Shutting down thread fetching mined rows");
+		shutdownLatch.countDown();
+		cursorSource.stop();
+	}
+
+	private void fetch(ResultSet rs) throws SQLException, InterruptedException {
+		if (fetchSizeController != null) {
+			rs.setFetchSize(fetchSizeController.getFetchSize());
+		}
+
+		Columns columns = new Columns(rs, transactionBuffer != null);
+		while (isRunning() && next(rs)) {
+			if (LOGGER.isTraceEnabled()) {
+				logRawMinerData(rs);
+			}
+
+			if (transactionBuffer == null) {
+				LogMinerRow row = readRow(rs, columns);
+				if (row != null) {
+					publish(row);
+				}
+			} else {
+				bufferRow(rs, columns);
+			}
+
+			if (fetchSizeController != null) {
+				int fetchSize = fetchSizeController.adjust(buffer.size(), buffer.capacity());
+				if (fetchSize > 0) {
+					rs.setFetchSize(fetchSize);
+				}
+			}
+		}
+	}
+
+	private void bufferRow(ResultSet rs, Columns columns) throws SQLException, InterruptedException {
+		long xid = getTransactionId(rs.getBytes(columns.xid));
+		switch (rs.getInt(columns.operationCode)) {
+		case LogMinerSourceConnectorConstants.OPERATION_CODE_START:
+			transactionBuffer.start(xid, rs.getLong(columns.scn));
+			break;
+		case LogMinerSourceConnectorConstants.OPERATION_CODE_COMMIT:
+			long commitSCN = rs.getLong(columns.scn);
+			try (TransactionBuffer.CommittedTransaction transaction = transactionBuffer.commit(xid, commitSCN)) {
+				for (LogMinerRow row : transaction) {
+					if (objectFilter.accept(row.getObjectKey(), commitSCN)) {
+						publish(row);
+					} else {
+						metrics.rowFiltered();
+					}
+				}
+			}
+			metrics.transactionCommitted();
+			break;
+		case LogMinerSourceConnectorConstants.OPERATION_CODE_ROLLBACK:
+			metrics.transactionRolledBack(transactionBuffer.rollback(xid));
+			break;
+		default:
+			LogMinerRow row = readRow(rs, columns);
+			if (row != null) {
+				try {
+					transactionBuffer.add(xid, row);
+				} catch (IOException e) {
+					throw new SQLException("Cannot spill transaction rows to disk", e);
+				}
+				if (transactionBuffer.isOverLimit()) {
+					throw new SQLException(String.format(
+							"Open transactions hold %d buffered rows using an estimated %d bytes, over the limit of %d",
+							transactionBuffer.getBufferedRows(), transactionBuffer.getBufferedBytes(),
+							transactionBuffer.getMaxBytes()));
+				}
+			}
+			break;
+		}
+		metrics.setTransactionBuffer(transactionBuffer.getOpenTransactions(), transactionBuffer.getBufferedRows(),
+				transactionBuffer.getBufferedBytes(), transactionBuffer.getSpilledBytes());
+	}
+
+	private void publish(LogMinerRow row) throws InterruptedException {
+		while (!buffer.offer(row, OFFER_WAIT_MS, TimeUnit.MILLISECONDS)) {
+			if (!isRunning()) {
+				return;
+			}
+		}
+	}
+
+	private boolean next(ResultSet rs) throws SQLException {
+		long started = System.nanoTime();
+		boolean hasNext = rs.next();
+		if (fetchSizeController != null) {
+			fetchSizeController.recordNext(System.nanoTime() - started);
+		}
+		if (hasNext) {
+			metrics.rowFetched();
+		}
+		return hasNext;
+	}
+
+	private String getRedoFragment(ResultSet rs, Columns columns) throws SQLException {
+		String fragment = rs.getString(columns.sqlRedo);
+		if (fetchSizeController != null) {
+			fetchSizeController.recordRow(fragment == null ? 0 : fragment.length());
+		}
+		return fragment;
+	}
+
+	private LogMinerRow readRow(ResultSet rs, Columns columns) throws SQLException {
+		String redoSQL = getRedoFragment(rs, columns);
+		if (redoSQL.contains(LogMinerSourceConnectorConstants.TEMPORARY_TABLES_PATTERN))
+			return null;
+
+		boolean continuation = rs.getBoolean(columns.csf);
+		long objectKey = BaseLogMinerDialect.objectKey(rs.getLong(columns.containerId), rs.getLong(columns.objectId));
+		if (objectFilter != null && !accept(rs, columns, objectKey)) {
+			while (continuation) {
+				next(rs);
+				continuation = rs.getBoolean(columns.csf);
+			}
+			metrics.rowFiltered();
+			return null;
+		}
+
+		boolean truncated = false;
+		if (continuation || redoSQL.length() > maxRedoSize) {
+			/*
+			 * Statements over several continuation rows are assembled in a reusable
+			 * buffer, keeping at most maxRedoSize characters
+			 */
+			redoBuilder.setLength(0);
+			truncated = append(redoSQL);
+			while (continuation) {
+				next(rs);
+				String fragment = getRedoFragment(rs, columns);
+				if (!truncated) {
+					truncated = append(fragment);
+				}
+				continuation = rs.getBoolean(columns.csf);
+			}
+
+			if (truncated) {
+				if (dropOversizeRedo) {
+					LOGGER.warn("Dropping row at SCN {} with redo SQL over {} characters", rs.getLong(columns.scn),
+							maxRedoSize);
+					metrics.redoDropped();
+					return null;
+				}
+				LOGGER.warn("Truncating redo SQL of row at SCN {} to {} characters", rs.getLong(columns.scn),
+						maxRedoSize);
+				metrics.redoTruncated();
+			}
+			redoSQL = redoBuilder.toString();
+			if (redoBuilder.capacity() > RETAINED_REDO_CAPACITY) {
+				redoBuilder.setLength(0);
+				redoBuilder.trimToSize();
+			}
+		}
+
+		LogMinerRow row = new LogMinerRow();
+		row.setSqlRedo(redoSQL);
+		row.setTruncated(truncated);
+		row.setObjectKey(objectKey);
+		row.setSystemChangeNumber(rs.getLong(columns.scn));
+		row.setCommitSystemChangeNumber(rs.getLong(columns.commitSCN));
+		row.setRowId(rs.getString(columns.rowId));
+		String redoRecordId = rs.getString(columns.redoRecordId);
+		row.setRedoRecordId(redoRecordId == null ? null : redoRecordId.trim());
+		row.setSubStatement(rs.getLong(columns.subStatement));
+		row.setDatabaseName(rs.getString(columns.containerName));
+		row.setOwnerName(rs.getString(columns.owner));
+		row.setTableName(rs.getString(columns.tableName));
+		row.setTimestamp(rs.getTimestamp(columns.timestamp));
+		row.setOperation(rs.getString(columns.operation));
+		return row;
+	}
+
+	/**
+	 * @return true if the fragment did not fit within the maximum redo size and
+	 *         only the part that did was appended
+	 */
+	private boolean append(String fragment) {
+		if (fragment == null) {
+			return false;
+		}
+		int space = maxRedoSize - redoBuilder.length();
+		if (fragment.length() > space) {
+			redoBuilder.append(fragment, 0, space);
+			return true;
+		}
+		redoBuilder.append(fragment);
+		return false;
+	}
+
+	private boolean accept(ResultSet rs, Columns columns, long objectKey) throws SQLException {
+		if (!objectFilter.isResolved(objectKey)) {
+			objectFilter.resolve(objectKey, rs.getString(columns.containerName), rs.getString(columns.owner),
+					rs.getString(columns.tableName));
+		}
+		if (transactionBuffer != null) {
+			/* The commit SCN is only known, and checked, once the transaction commits */
+			return objectFilter.isMined(objectKey);
+		}
+		return objectFilter.accept(objectKey, rs.getLong(columns.commitSCN));
+	}
+
+	private static long getTransactionId(byte[] xid) {
+		/* An XID is RAW(8): undo segment (2 bytes), slot (2) and sequence (4) */
+		long id = 0L;
+		if (xid != null) {
+			for (byte b : xid) {
+				id = (id << 8) | (b & 0xFF);
+			}
+		}
+		return id;
+	}
+
+	private void logRawMinerData(ResultSet rs) throws SQLException {
+		ResultSetMetaData md = rs.getMetaData();
+		StringBuffer b = new StringBuffer();
+		for (int i = 1; i < md.getColumnCount(); i++) {
+			String columnName = md.getColumnName(i);
+			Object columnValue = rs.getObject(i);
+			b.append("[" + columnName + "=" + (columnValue == null ? "NULL" : columnValue.toString()) + "]");
+		}
+		LOGGER.trace(b.toString());
+	}
+
+	/**
+	 * Ordinals of the mining query columns read for each row, resolved once per
+	 * ResultSet rather than looked up by name on every row
+	 */
+	private static final class Columns {
+		private final int scn;
+		private final int commitSCN;
+		private final int timestamp;
+		private final int operation;
+		private final int owner;
+		private final int tableName;
+		private final int sqlRedo;
+		private final int rowId;
+		private final int csf;
+		private final int containerId;
+		private final int containerName;
+		private final int objectId;
+		private final int redoRecordId;
+		private final int subStatement;
+		private final int operationCode;
+		private final int xid;
+
+		private Columns(ResultSet rs, boolean transactional) throws SQLException {
+			scn = rs.findColumn(LogMinerSourceConnectorConstants.FIELD_SCN);
+			commitSCN = rs.findColumn(LogMinerSourceConnectorConstants.FIELD_COMMIT_SCN);
+			timestamp = rs.findColumn(LogMinerSourceConnectorConstants.FIELD_TIMESTAMP);
+			operation = rs.findColumn(LogMinerSourceConnectorConstants.FIELD_OPERATION);
+			owner = rs.findColumn(LogMinerSourceConnectorConstants.FIELD_SEG_OWNER);
+			tableName = rs.findColumn(LogMinerSourceConnectorConstants.FIELD_TABLE_NAME);
+			sqlRedo = rs.findColumn(LogMinerSourceConnectorConstants.FIELD_SQL_REDO);
+			rowId = rs.findColumn(LogMinerSourceConnectorConstants.FIELD_ROW_ID);
+			csf = rs.findColumn(LogMinerSourceConnectorConstants.FIELD_CSF);
+			containerId = rs.findColumn(LogMinerSourceConnectorConstants.FIELD_SRC_CON_ID);
+			containerName = rs.findColumn(LogMinerSourceConnectorConstants.FIELD_SRC_CON_NAME);
+			objectId = rs.findColumn(LogMinerSourceConnectorConstants.FIELD_DATA_OBJ);
+			redoRecordId = rs.findColumn(LogMinerSourceConnectorConstants.FIELD_RS_ID);
+			subStatement = rs.findColumn(LogMinerSourceConnectorConstants.FIELD_SSN);
+			operationCode = transactional ? rs.findColumn(LogMinerSourceConnectorConstants.FIELD_OPERATION_CODE) : -1;
+			xid = transactional ? rs.findColumn(LogMinerSourceConnectorConstants.FIELD_XID) : -1;
+		}
+	}
+}
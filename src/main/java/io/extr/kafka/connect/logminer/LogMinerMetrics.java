@@ -0,0 +1,455 @@
+/**
+ * Copyright 2018 David Arnold
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ **/
+
+package io.extr.kafka.connect.logminer;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Counters and gauges for a log miner session, registered with the platform
+ * MBean server under
+ * {@code io.extr.kafka.connect.logminer:type=session-metrics,connector=<name>,session=<n>}
+ */
+public class LogMinerMetrics implements LogMinerMetricsMBean {
+	private static final Logger LOGGER = LoggerFactory.getLogger(LogMinerMetrics.class);
+
+	private static final String DOMAIN = "io.extr.kafka.connect.logminer";
+	private static final AtomicInteger SESSION_SEQUENCE = new AtomicInteger();
+
+	private final ObjectName objectName;
+
+	private final LongAdder rowsFetched = new LongAdder();
+	private final LongAdder fetchRoundTrips = new LongAdder();
+	private volatile int fetchSize;
+	private final LongAdder fetchSizeIncreases = new LongAdder();
+	private final LongAdder fetchSizeDecreases = new LongAdder();
+	private volatile double rowsPerRoundTrip;
+	private volatile double bytesPerRow;
+	private final LongAdder miningWindows = new LongAdder();
+	private volatile long miningWindowSize;
+	private volatile long miningWindowMillis;
+	private volatile long minedSCN;
+	private final AtomicLong acknowledgedSCN = new AtomicLong();
+	private final LongAdder heartbeats = new LongAdder();
+	private final LongAdder logFilesRegistered = new LongAdder();
+	private final LongAdder miningSessionRollovers = new LongAdder();
+	private final LongAdder rowsFiltered = new LongAdder();
+	private final LongAdder rowsDeduplicated = new LongAdder();
+	private final LongAdder redoTruncated = new LongAdder();
+	private final LongAdder redoDropped = new LongAdder();
+	private final LongAdder redoParseFallbacks = new LongAdder();
+	private final LongAdder shapeCacheHits = new LongAdder();
+	private final LongAdder shapeCacheMisses = new LongAdder();
+	private volatile int decodeWorkers;
+	private volatile int dictionaryPrefetchTables;
+	private volatile long dictionaryPrefetchMillis;
+	private final LongAdder dictionaryLookups = new LongAdder();
+	private final LongAdder dictionaryLookupNanos = new LongAdder();
+	private volatile int schemaSnapshotHits;
+	private volatile int schemaSnapshotMisses;
+	private final LongAdder transactionsCommitted = new LongAdder();
+	private final LongAdder transactionsRolledBack = new LongAdder();
+	private final LongAdder rowsRolledBack = new LongAdder();
+	private volatile int openTransactions;
+	private volatile long bufferedTransactionRows;
+	private volatile long bufferedTransactionBytes;
+	private volatile long spilledTransactionBytes;
+	private final LongAdder spilledTransactions = new LongAdder();
+	private final LongAdder spillBytesWritten = new LongAdder();
+	private final LongAdder spillRowsWritten = new LongAdder();
+	private final LongAdder spillWriteNanos = new LongAdder();
+	private final LongAdder spillRowsRead = new LongAdder();
+	private final LongAdder spillReadNanos = new LongAdder();
+
+	public LogMinerMetrics(String connectorName) {
+		ObjectName name = null;
+		try {
+			name = new ObjectName(DOMAIN + ":type=session-metrics,connector=" + ObjectName.quote(connectorName)
+					+ ",session=" + SESSION_SEQUENCE.incrementAndGet());
+		} catch (JMException e) {
+			LOGGER.warn("Cannot create metrics object name for connector {}", connectorName, e);
+		}
+		this.objectName = name;
+	}
+
+	public void register() {
+		if (objectName == null) {
+			return;
+		}
+		try {
+			MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+			server.registerMBean(this, objectName);
+			LOGGER.debug("Registered session metrics {}", objectName);
+		} catch (JMException e) {
+			LOGGER.warn("Cannot register session metrics {}", objectName, e);
+		}
+	}
+
+	public void unregister() {
+		if (objectName == null) {
+			return;
+		}
+		try {
+			MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+			if (server.isRegistered(objectName)) {
+				server.unregisterMBean(objectName);
+			}
+		} catch (JMException e) {
+			LOGGER.warn("Cannot unregister session metrics {}", objectName, e);
+		}
+	}
+
+	public void rowFetched() {
+		rowsFetched.increment();
+	}
+
+	public void fetchRoundTrip() {
+		fetchRoundTrips.increment();
+	}
+
+	public void fetchSizeChanged(int previous, int current) {
+		if (current > previous) {
+			fetchSizeIncreases.increment();
+		} else if (current < previous) {
+			fetchSizeDecreases.increment();
+		}
+		fetchSize = current;
+	}
+
+	public void setFetchSize(int fetchSize) {
+		this.fetchSize = fetchSize;
+	}
+
+	public void setFetchObservations(double rowsPerRoundTrip, double bytesPerRow) {
+		this.rowsPerRoundTrip = rowsPerRoundTrip;
+		this.bytesPerRow = bytesPerRow;
+	}
+
+	public void miningWindowCompleted(long endSCN, long nextWindowSize, long elapsedMillis) {
+		miningWindows.increment();
+		minedSCN = endSCN;
+		miningWindowSize = nextWindowSize;
+		miningWindowMillis = elapsedMillis;
+	}
+
+	public void heartbeatsSent(int tables) {
+		heartbeats.add(tables);
+	}
+
+	public void recordAcknowledged(long offsetSCN) {
+		acknowledgedSCN.accumulateAndGet(offsetSCN, Math::max);
+	}
+
+	public void logFilesRegistered(int count) {
+		logFilesRegistered.add(count);
+	}
+
+	public void miningSessionRolledOver() {
+		miningSessionRollovers.increment();
+	}
+
+	public void rowFiltered() {
+		rowsFiltered.increment();
+	}
+
+	public void redoTruncated() {
+		redoTruncated.increment();
+	}
+
+	public void redoDropped() {
+		redoDropped.increment();
+	}
+
+	public void redoParseFallback() {
+		redoParseFallbacks.increment();
+	}
+
+	public void rowDeduplicated() {
+		rowsDeduplicated.increment();
+	}
+
+	public void shapeCacheHit() {
+		shapeCacheHits.increment();
+	}
+
+	public void shapeCacheMiss() {
+		shapeCacheMisses.increment();
+	}
+
+	public void setDecodeWorkers(int decodeWorkers) {
+		this.decodeWorkers = decodeWorkers;
+	}
+
+	public void dictionaryPrefetched(int tables, long elapsedMillis) {
+		dictionaryPrefetchTables = tables;
+		dictionaryPrefetchMillis = elapsedMillis;
+	}
+
+	public void schemaSnapshotRestored(int hits, int misses) {
+		schemaSnapshotHits = hits;
+		schemaSnapshotMisses = misses;
+	}
+
+	public void dictionaryLookup(long elapsedNanos) {
+		dictionaryLookups.increment();
+		dictionaryLookupNanos.add(elapsedNanos);
+	}
+
+	public void transactionCommitted() {
+		transactionsCommitted.increment();
+	}
+
+	public void transactionRolledBack(long rows) {
+		transactionsRolledBack.increment();
+		rowsRolledBack.add(rows);
+	}
+
+	public void setTransactionBuffer(int openTransactions, long bufferedRows, long bufferedBytes,
+			long spilledBytes) {
+		this.openTransactions = openTransactions;
+		this.bufferedTransactionRows = bufferedRows;
+		this.bufferedTransactionBytes = bufferedBytes;
+		this.spilledTransactionBytes = spilledBytes;
+	}
+
+	public void transactionSpilled() {
+		spilledTransactions.increment();
+	}
+
+	public void spillWritten(long bytes, long elapsedNanos) {
+		spillRowsWritten.increment();
+		spillBytesWritten.add(bytes);
+		spillWriteNanos.add(elapsedNanos);
+	}
+
+	public void spillRead(long elapsedNanos) {
+		spillRowsRead.increment();
+		spillReadNanos.add(elapsedNanos);
+	}
+
+	@Override
+	public long getRowsFetched() {
+		return rowsFetched.sum();
+	}
+
+	@Override
+	public long getFetchRoundTrips() {
+		return fetchRoundTrips.sum();
+	}
+
+	@Override
+	public int getFetchSize() {
+		return fetchSize;
+	}
+
+	@Override
+	public long getFetchSizeIncreases() {
+		return fetchSizeIncreases.sum();
+	}
+
+	@Override
+	public long getFetchSizeDecreases() {
+		return fetchSizeDecreases.sum();
+	}
+
+	@Override
+	public double getRowsPerRoundTrip() {
+		return rowsPerRoundTrip;
+	}
+
+	@Override
+	public double getBytesPerRow() {
+		return bytesPerRow;
+	}
+
+	@Override
+	public long getMiningWindows() {
+		return miningWindows.sum();
+	}
+
+	@Override
+	public long getMiningWindowSize() {
+		return miningWindowSize;
+	}
+
+	@Override
+	public long getMiningWindowMillis() {
+		return miningWindowMillis;
+	}
+
+	@Override
+	public long getMinedSCN() {
+		return minedSCN;
+	}
+
+	@Override
+	public long getAcknowledgedSCN() {
+		return acknowledgedSCN.get();
+	}
+
+	@Override
+	public long getHeartbeats() {
+		return heartbeats.sum();
+	}
+
+	@Override
+	public long getLogFilesRegistered() {
+		return logFilesRegistered.sum();
+	}
+
+	@Override
+	public long getMiningSessionRollovers() {
+		return miningSessionRollovers.sum();
+	}
+
+	@Override
+	public long getRowsFiltered() {
+		return rowsFiltered.sum();
+	}
+
+	@Override
+	public long getRowsDeduplicated() {
+		return rowsDeduplicated.sum();
+	}
+
+	@Override
+	public long getRedoTruncated() {
+		return redoTruncated.sum();
+	}
+
+	@Override
+	public long getRedoDropped() {
+		return redoDropped.sum();
+	}
+
+	@Override
+	public long getRedoParseFallbacks() {
+		return redoParseFallbacks.sum();
+	}
+
+	@Override
+	public long getShapeCacheHits() {
+		return shapeCacheHits.sum();
+	}
+
+	@Override
+	public long getShapeCacheMisses() {
+		return shapeCacheMisses.sum();
+	}
+
+	@Override
+	public int getDecodeWorkers() {
+		return decodeWorkers;
+	}
+
+	@Override
+	public int getDictionaryPrefetchTables() {
+		return dictionaryPrefetchTables;
+	}
+
+	@Override
+	public long getDictionaryPrefetchMillis() {
+		return dictionaryPrefetchMillis;
+	}
+
+	@Override
+	public long getDictionaryLookups() {
+		return dictionaryLookups.sum();
+	}
+
+	@Override
+	public double getDictionaryMillisPerLookup() {
+		long lookups = dictionaryLookups.sum();
+		return lookups == 0 ? 0.0 : dictionaryLookupNanos.sum() / 1000000.0 / lookups;
+	}
+
+	@Override
+	public int getSchemaSnapshotHits() {
+		return schemaSnapshotHits;
+	}
+
+	@Override
+	public int getSchemaSnapshotMisses() {
+		return schemaSnapshotMisses;
+	}
+
+	@Override
+	public long getTransactionsCommitted() {
+		return transactionsCommitted.sum();
+	}
+
+	@Override
+	public long getTransactionsRolledBack() {
+		return transactionsRolledBack.sum();
+	}
+
+	@Override
+	public long getRowsRolledBack() {
+		return rowsRolledBack.sum();
+	}
+
+	@Override
+	public int getOpenTransactions() {
+		return openTransactions;
+	}
+
+	@Override
+	public long getBufferedTransactionRows() {
+		return bufferedTransactionRows;
+	}
+
+	@Override
+	public long getBufferedTransactionBytes() {
+		return bufferedTransactionBytes;
+	}
+
+	@Override
+	public long getSpilledTransactionBytes() {
+		return spilledTransactionBytes;
+	}
+
+	@Override
+	public long getSpilledTransactions() {
+		return spilledTransactions.sum();
+	}
+
+	@Override
+	public long getSpillBytesWritten() {
+		return spillBytesWritten.sum();
+	}
+
+	@Override
+	public double getSpillWriteMicrosPerRow() {
+		long rows = spillRowsWritten.sum();
+		return rows == 0 ? 0.0 : spillWriteNanos.sum() / 1000.0 / rows;
+	}
+
+	@Override
+	public double getSpillReadMicrosPerRow() {
+		long rows = spillRowsRead.sum();
+		return rows == 0 ? 0.0 : spillReadNanos.sum() / 1000.0 / rows;
+	}
+}
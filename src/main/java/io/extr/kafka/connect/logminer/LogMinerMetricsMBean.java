@@ -0,0 +1,102 @@
+/**
+ * Copyright 2018 David Arnold
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ **/
+
+package io.extr.kafka.connect.logminer;
+
+/**
+ * JMX view of a running log miner session
+ */
+public interface LogMinerMetricsMBean {
+	public long getRowsFetched();
+
+	public long getFetchRoundTrips();
+
+	public int getFetchSize();
+
+	public long getFetchSizeIncreases();
+
+	public long getFetchSizeDecreases();
+
+	public double getRowsPerRoundTrip();
+
+	public double getBytesPerRow();
+
+	public long getMiningWindows();
+
+	public long getMiningWindowSize();
+
+	public long getMiningWindowMillis();
+
+	public long getMinedSCN();
+
+	public long getAcknowledgedSCN();
+
+	public long getHeartbeats();
+
+	public long getLogFilesRegistered();
+
+	public long getMiningSessionRollovers();
+
+	public long getRowsFiltered();
+
+	public long getRowsDeduplicated();
+
+	public long getRedoTruncated();
+
+	public long getRedoDropped();
+
+	public long getRedoParseFallbacks();
+
+	public long getShapeCacheHits();
+
+	public long getShapeCacheMisses();
+
+	public int getDecodeWorkers();
+
+	public int getDictionaryPrefetchTables();
+
+	public long getDictionaryPrefetchMillis();
+
+	public long getDictionaryLookups();
+
+	public double getDictionaryMillisPerLookup();
+
+	public int getSchemaSnapshotHits();
+
+	public int getSchemaSnapshotMisses();
+
+	public long getTransactionsCommitted();
+
+	public long getTransactionsRolledBack();
+
+	public long getRowsRolledBack();
+
+	public int getOpenTransactions();
+
+	public long getBufferedTransactionRows();
+
+	public long getBufferedTransactionBytes();
+
+	public long getSpilledTransactionBytes();
+
+	public long getSpilledTransactions();
+
+	public long getSpillBytesWritten();
+
+	public double getSpillWriteMicrosPerRow();
+
+	public double getSpillReadMicrosPerRow();
+}
@@ -1,6 +1,9 @@
 package io.extr.kafka.connect.logminer;
 
-import java.sql.CallableStatement;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.sql.Connection;
 import java.sql.DatabaseMetaData;
 import java.sql.DriverManager;
@@ -8,27 +11,32 @@ import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
-import java.sql.Timestamp;
+import java.time.DateTimeException;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Properties;
-import java.util.concurrent.Callable;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
-import java.util.concurrent.FutureTask;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
 
+import org.apache.kafka.connect.data.Field;
 import org.apache.kafka.connect.data.Schema;
 import org.apache.kafka.connect.data.SchemaBuilder;
 import org.apache.kafka.connect.data.Struct;
 import org.apache.kafka.connect.errors.ConnectException;
+import org.apache.kafka.connect.errors.DataException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -36,63 +44,116 @@ import io.extr.kafka.connect.logminer.dialect.BaseLogMinerDialect;
 import io.extr.kafka.connect.logminer.dialect.LogMinerDialect;
 import io.extr.kafka.connect.logminer.dialect.LogMinerSQLFactory;
 import io.extr.kafka.connect.logminer.dialect.LogMinerSQLFactory.Strategy;
+import io.extr.kafka.connect.logminer.model.Column;
 import io.extr.kafka.connect.logminer.model.LogMinerEvent;
+import io.extr.kafka.connect.logminer.model.LogMinerRow;
 import io.extr.kafka.connect.logminer.model.Offset;
 import io.extr.kafka.connect.logminer.model.Table;
+import io.extr.kafka.connect.logminer.model.TableSchema;
+import io.extr.kafka.connect.logminer.util.RingBuffer;
 import net.sf.jsqlparser.JSQLParserException;
 
 public class LogMinerSession implements AutoCloseable {
 	private static final Logger LOGGER = LoggerFactory.getLogger(LogMinerSession.class);
 
 	private static final int VALIDITY_CHECK_TIMEOUT = 5;
+	private static final long FETCHER_SHUTDOWN_TIMEOUT = 10000L;
+	private static final int MAX_IN_LIST_SIZE = 1000;
+	private static final int MIN_DECODE_CHUNK = 64;
+	private static final long DECODE_SHUTDOWN_TIMEOUT = 10000L;
 
 	private static final String SEEK_SCN_MINIMUM = "min";
 	private static final String SEEK_SCN_CURRENT = "current";
 
+	private static final String CONNECTOR_NAME_PROPERTY = "name";
+	private static final String JAVA_TMPDIR_PROPERTY = "java.io.tmpdir";
+	private static final String SET_CONTAINER_ROOT = "ALTER SESSION SET CONTAINER = CDB$ROOT";
+	private static final String SET_SESSION_NLS = "ALTER SESSION SET NLS_DATE_FORMAT = 'YYYY-MM-DD HH24:MI:SS' "
+			+ "NLS_TIMESTAMP_FORMAT = 'YYYY-MM-DD HH24:MI:SS.FF9' "
+			+ "NLS_TIMESTAMP_TZ_FORMAT = 'YYYY-MM-DD HH24:MI:SS.FF9 TZH:TZM' NLS_NUMERIC_CHARACTERS = '.,'";
+
 	private LogMinerSourceConnectorConfig config;
 	private Connection connection;
+	private Connection dictionaryConnection;
 	private Boolean multitenant;
 	private PreparedStatement miningQuery;
+	private MiningCursorSource cursorSource;
 	private PreparedStatement dictionaryQuery;
-	private ResultSet rs;
-	private Map<Table, Schema> schemas = new HashMap<>();
-	private ExecutorService executorService;
-	private FutureTask<Void> miningQueryTask;
-
-	private Boolean started;
+	private RingBuffer<LogMinerRow> rowBuffer;
+	private LogMinerFetcherThread fetcherThread;
+	private LogMinerMetrics metrics;
+	private FetchSizeController fetchSizeController;
+	private MiningObjectFilter objectFilter;
+	private boolean committedDataOnly;
+	private boolean parseDmlData;
+	private TransactionBuffer transactionBuffer;
+	private DecodeState[] decodeStates;
+	private ExecutorService decodeExecutor;
+	private final TableRegistry tableRegistry = new TableRegistry();
+	private final Object schemaLock = new Object();
+	/* Current schema of each described table, read by decode workers and replaced under schemaLock */
+	private final Map<Table, TableSchema> tableSchemas = new ConcurrentHashMap<>();
+	/* Described tables kept across restarts, and LAST_DDL_TIMEs read on start */
+	private SchemaSnapshot schemaSnapshot;
+	private Map<Table, Long> lastDdlTimes = Collections.emptyMap();
+	/* Stored redo positions of the tables, until mining has passed all of them */
+	private Map<Table, Offset> resumePositions;
+	private long resumeCommitSCN;
+
+	private boolean started;
 
 	public LogMinerSession(LogMinerSourceConnectorConfig config) {
 		this.config = config;
-		this.executorService = Executors.newCachedThreadPool();
 	}
 
 	public synchronized void start(Map<Table, Offset> state) throws SQLException {
-		Long sessionStartSCN = getSessionStartSCN(state);
+		start(state, null);
+	}
 
-		LOGGER.info("Starting log miner session at SCN {}", sessionStartSCN);
-		CallableStatement s = getConnection()
-				.prepareCall(getDialect().getStatement(LogMinerDialect.Statement.START_MINING));
-		s.setLong(1, sessionStartSCN);
-		s.execute();
+	/**
+	 * @param state
+	 *            stored offsets of the tables to mine
+	 * @param resumeSCN
+	 *            stored task watermark, below which every change to these tables
+	 *            has been delivered, or null when there is none
+	 */
+	public synchronized void start(Map<Table, Offset> state, Long resumeSCN) throws SQLException {
+		Long sessionStartSCN = getSessionStartSCN(state, resumeSCN);
 
-		dictionaryQuery = getConnection()
-				.prepareStatement(getDialect().getStatement(LogMinerDialect.Statement.DICTIONARY));
+		LOGGER.info("Starting log miner session at SCN {}", sessionStartSCN);
+		metrics = new LogMinerMetrics(config.originalsStrings().getOrDefault(CONNECTOR_NAME_PROPERTY,
+				LogMinerSourceConnectorConstants.DEFAULT_CONNECTOR_NAME));
+		metrics.register();
+
+		/*
+		 * The fetcher thread holds the mining connection for the duration of each
+		 * round-trip, so dictionary lookups from the poll thread use their own
+		 */
+		parseDmlData = config.getBoolean(LogMinerSourceConnectorConfig.PARSE_DML_DATA_CONFIG);
+		if (parseDmlData) {
+			dictionaryQuery = getDictionaryConnection()
+					.prepareStatement(getDialect().getStatement(LogMinerDialect.Statement.DICTIONARY));
+			initTableSchemas(state.keySet());
+		}
 
+		committedDataOnly = config.getBoolean(LogMinerSourceConnectorConfig.MINING_COMMITTED_ONLY_CONFIG);
+		fetchSizeController = createFetchSizeController();
 		miningQuery = createMiningQuery(state);
+		setResumePositions(state);
+		cursorSource = createCursorSource(sessionStartSCN);
 
-		LOGGER.debug("Starting mining query thread");
-		Callable<Void> queryCall = new Callable<Void>() {
-			public Void call() throws SQLException {
-				LOGGER.debug("Mining query execution start");
-				rs = miningQuery.executeQuery();
-				LOGGER.debug("Mining query ResultSet assigned");
-				return null;
-			}
-		};
-		miningQueryTask = new FutureTask<Void>(queryCall);
-		executorService.execute(miningQueryTask);
+		transactionBuffer = committedDataOnly ? null : createTransactionBuffer();
+		createDecodeWorkers();
+
+		LOGGER.debug("Starting mining query fetcher thread");
+		rowBuffer = new RingBuffer<>(config.getInt(LogMinerSourceConnectorConfig.FETCH_BUFFER_SIZE_CONFIG));
+		fetcherThread = new LogMinerFetcherThread(cursorSource, rowBuffer, fetchSizeController, objectFilter,
+				transactionBuffer, metrics, config.getInt(LogMinerSourceConnectorConfig.REDO_MAX_SIZE_CONFIG),
+				LogMinerSourceConnectorConfig.REDO_OVERSIZE_ACTION_DROP
+						.equals(config.getString(LogMinerSourceConnectorConfig.REDO_OVERSIZE_ACTION_CONFIG)));
+		fetcherThread.start();
 
-		started = Boolean.TRUE;
+		started = true;
 		LOGGER.debug("Log miner session started");
 	}
 
@@ -101,27 +162,50 @@ public class LogMinerSession implements AutoCloseable {
 			if (started) {
 				LOGGER.info("Stopping log miner session");
 
-				if (miningQueryTask != null && !miningQueryTask.isDone()) {
-					LOGGER.debug("Shutting down query thread");
-					miningQueryTask.cancel(true);
+				LOGGER.debug("Shutting down fetcher thread");
+				fetcherThread.shutdown();
+				miningQuery.cancel();
+				try {
+					fetcherThread.join(FETCHER_SHUTDOWN_TIMEOUT);
+				} catch (InterruptedException e) {
+					LOGGER.warn("Interrupted waiting for fetcher thread to stop");
+					Thread.currentThread().interrupt();
 				}
 
 				LOGGER.debug("Closing session JDBC resources");
-				rs.close();
-
-				miningQuery.cancel();
 				miningQuery.close();
 
-				dictionaryQuery.cancel();
-				dictionaryQuery.close();
+				if (dictionaryQuery != null) {
+					dictionaryQuery.cancel();
+					dictionaryQuery.close();
+					dictionaryQuery = null;
+				}
 
-				CallableStatement s = connection
-						.prepareCall(getDialect().getStatement(LogMinerDialect.Statement.STOP_MINING));
-				s.execute();
-				s.close();
+				cursorSource.close();
+				if (decodeExecutor != null) {
+					decodeExecutor.shutdownNow();
+					try {
+						decodeExecutor.awaitTermination(DECODE_SHUTDOWN_TIMEOUT, TimeUnit.MILLISECONDS);
+					} catch (InterruptedException e) {
+						LOGGER.warn("Interrupted waiting for decode workers to stop");
+						Thread.currentThread().interrupt();
+					}
+					decodeExecutor = null;
+				}
+				if (transactionBuffer != null) {
+					transactionBuffer.close();
+				}
+				synchronized (schemaLock) {
+					saveSchemaSnapshot();
+				}
+				metrics.unregister();
+				started = false;
 				LOGGER.debug("Log miner session ended");
 			}
 
+			if (dictionaryConnection != null) {
+				dictionaryConnection.close();
+			}
 			if (connection != null) {
 				LOGGER.info("Closing database connection");
 				connection.close();
@@ -129,55 +213,202 @@ public class LogMinerSession implements AutoCloseable {
 		} catch (SQLException e) {
 			LOGGER.warn("Ignoring error closing session JDBC resources", e);
 		} finally {
+			dictionaryConnection = null;
 			connection = null;
 		}
 	}
 
-	public List<LogMinerEvent> poll() throws SQLException {
+	/**
+	 * Drain rows handed over by the fetcher thread into a batch of events,
+	 * returning once the batch holds
+	 * {@value LogMinerSourceConnectorConfig#MAX_BATCH_SIZE_CONFIG} events or
+	 * {@value LogMinerSourceConnectorConfig#MAX_BATCH_LATENCY_CONFIG} has elapsed,
+	 * whichever comes first
+	 * 
+	 * @return mined events, or null if none were available
+	 * @throws SQLException
+	 * @throws InterruptedException
+	 */
+	public List<LogMinerEvent> poll() throws SQLException, InterruptedException {
+		if (fetcherThread == null) {
+			return null;
+		}
+		fetcherThread.checkFailure();
+
+		int maxBatchSize = config.getInt(LogMinerSourceConnectorConfig.MAX_BATCH_SIZE_CONFIG);
+		long maxBatchLatency = config.getLong(LogMinerSourceConnectorConfig.MAX_BATCH_LATENCY_CONFIG);
+		long deadline = System.currentTimeMillis() + maxBatchLatency;
+
 		List<LogMinerEvent> events = new ArrayList<>();
-		while (rs != null && rs.next()) {
-			if (LOGGER.isTraceEnabled()) {
-				logRawMinerData();
+		List<LogMinerRow> rows = new ArrayList<>();
+		while (events.size() < maxBatchSize) {
+			long remaining = deadline - System.currentTimeMillis();
+			if (remaining <= 0) {
+				break;
 			}
 
-			String redoSQL = rs.getString(LogMinerSourceConnectorConstants.FIELD_SQL_REDO);
-			if (redoSQL.contains(LogMinerSourceConnectorConstants.TEMPORARY_TABLES_PATTERN))
+			rows.clear();
+			if (rowBuffer.drainTo(rows, maxBatchSize - events.size(), remaining, TimeUnit.MILLISECONDS) == 0) {
+				fetcherThread.checkFailure();
 				continue;
+			}
 
-			Boolean continuation = rs.getBoolean(LogMinerSourceConnectorConstants.FIELD_CSF);
-			while (continuation) {
-				rs.next();
-				redoSQL += rs.getString(LogMinerSourceConnectorConstants.FIELD_SQL_REDO);
-				continuation = rs.getBoolean(LogMinerSourceConnectorConstants.FIELD_CSF);
+			int kept = 0;
+			for (LogMinerRow row : rows) {
+				row.setTable(tableRegistry.resolve(row));
+				if (resumePositions != null && isDelivered(row)) {
+					metrics.rowDeduplicated();
+					continue;
+				}
+				rows.set(kept++, row);
+			}
+			if (kept < rows.size()) {
+				rows.subList(kept, rows.size()).clear();
+			}
+			decode(rows, events);
+		}
+
+		LOGGER.debug("Poll returned {} events, {} rows still buffered", events.size(), rowBuffer.size());
+		return events.isEmpty() ? null : events;
+	}
+
+	/**
+	 * Keep the stored redo position of each table, so that the changes of the
+	 * last transactions delivered before a restart, mined again because the
+	 * query resumes at their commit SCN, are skipped rather than replayed
+	 */
+	private void setResumePositions(Map<Table, Offset> state) {
+		Map<Table, Offset> positions = new HashMap<>();
+		long commitSCN = 0L;
+		for (Map.Entry<Table, Offset> entry : state.entrySet()) {
+			Offset offset = entry.getValue();
+			if (offset.getRedoRecordId() != null && offset.getCommitSystemChangeNumber() != null) {
+				positions.put(entry.getKey(), offset);
+				commitSCN = Math.max(commitSCN, offset.getCommitSystemChangeNumber());
 			}
+		}
+		resumePositions = positions.isEmpty() ? null : positions;
+		resumeCommitSCN = commitSCN;
+		LOGGER.debug("Resuming {} tables from stored redo positions up to COMMIT_SCN {}", positions.size(),
+				commitSCN);
+	}
+
+	/**
+	 * Rows arrive in commit order, so once one is past every stored position the
+	 * positions are dropped and no later row pays for the check
+	 */
+	private boolean isDelivered(LogMinerRow row) {
+		if (row.getCommitSystemChangeNumber() > resumeCommitSCN) {
+			LOGGER.debug("Mining passed stored redo positions at COMMIT_SCN {}", row.getCommitSystemChangeNumber());
+			resumePositions = null;
+			return false;
+		}
+		Offset position = resumePositions.get(row.getTable());
+		return position != null && position.covers(row.getCommitSystemChangeNumber(), row.getRedoRecordId(),
+				row.getSubStatement());
+	}
 
-			String databaseName = rs.getString(LogMinerSourceConnectorConstants.FIELD_SRC_CON_NAME);
-			String ownerName = rs.getString(LogMinerSourceConnectorConstants.FIELD_SEG_OWNER);
-			String tableName = rs.getString(LogMinerSourceConnectorConstants.FIELD_TABLE_NAME);
+	/**
+	 * Decode rows into events appended in row order. Large batches are split into
+	 * contiguous chunks, one per decode worker, whose events are appended chunk by
+	 * chunk once all have finished, so parallel decoding never reorders events.
+	 */
+	private void decode(List<LogMinerRow> rows, List<LogMinerEvent> events) throws SQLException {
+		int chunks = decodeExecutor == null ? 1
+				: Math.min(decodeStates.length, (rows.size() + MIN_DECODE_CHUNK - 1) / MIN_DECODE_CHUNK);
+		if (chunks <= 1) {
+			decode(rows, 0, rows.size(), decodeStates[0], events);
+			return;
+		}
 
-			LogMinerEvent event = createEvent(new Table(databaseName, ownerName, tableName), redoSQL);
+		int chunkSize = (rows.size() + chunks - 1) / chunks;
+		List<Future<List<LogMinerEvent>>> results = new ArrayList<>(chunks);
+		for (int i = 0; i < chunks; i++) {
+			final int from = i * chunkSize;
+			final int to = Math.min(from + chunkSize, rows.size());
+			final DecodeState state = decodeStates[i];
+			results.add(decodeExecutor.submit(() -> {
+				List<LogMinerEvent> chunk = new ArrayList<>(to - from);
+				decode(rows, from, to, state, chunk);
+				return chunk;
+			}));
+		}
 
-			populateEventField(event, LogMinerSourceConnectorConstants.FIELD_SCN, rs);
-			populateEventField(event, LogMinerSourceConnectorConstants.FIELD_COMMIT_SCN, rs);
-			populateEventField(event, LogMinerSourceConnectorConstants.FIELD_ROW_ID, rs);
-			populateEventField(event, LogMinerSourceConnectorConstants.FIELD_SEG_OWNER, rs);
-			populateEventField(event, LogMinerSourceConnectorConstants.FIELD_TABLE_NAME, rs);
-			populateEventField(event, LogMinerSourceConnectorConstants.FIELD_TIMESTAMP, rs);
-			populateEventField(event, LogMinerSourceConnectorConstants.FIELD_SQL_REDO, rs);
-			populateEventField(event, LogMinerSourceConnectorConstants.FIELD_OPERATION, rs);
+		try {
+			for (Future<List<LogMinerEvent>> result : results) {
+				events.addAll(result.get());
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new SQLException("Interrupted decoding log miner rows", e);
+		} catch (ExecutionException e) {
+			for (Future<List<LogMinerEvent>> result : results) {
+				result.cancel(true);
+			}
+			if (e.getCause() instanceof SQLException) {
+				throw (SQLException) e.getCause();
+			}
+			if (e.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) e.getCause();
+			}
+			throw new SQLException("Cannot decode log miner rows", e.getCause());
+		}
+	}
 
-			LOGGER.debug("Poll added event: {}", event.toString());
+	private void decode(List<LogMinerRow> rows, int from, int to, DecodeState state, List<LogMinerEvent> events)
+			throws SQLException {
+		for (int i = from; i < to; i++) {
+			LogMinerRow row = rows.get(i);
+			Table table = row.getTable();
+			LogMinerEvent event = parseDmlData ? createEvent(table, row.getSqlRedo(), row.isTruncated(), state)
+					: new LogMinerEvent(table, LogMinerSourceConnectorConstants.RAW_EVENT_SCHEMA,
+							new Struct(LogMinerSourceConnectorConstants.RAW_EVENT_SCHEMA));
+
+			Struct struct = event.getStruct();
+			struct.put(LogMinerSourceConnectorConstants.FIELD_SCN, row.getSystemChangeNumber());
+			struct.put(LogMinerSourceConnectorConstants.FIELD_COMMIT_SCN, row.getCommitSystemChangeNumber());
+			struct.put(LogMinerSourceConnectorConstants.FIELD_ROW_ID, row.getRowId());
+			struct.put(LogMinerSourceConnectorConstants.FIELD_SEG_OWNER, row.getOwnerName());
+			struct.put(LogMinerSourceConnectorConstants.FIELD_TABLE_NAME, row.getTableName());
+			struct.put(LogMinerSourceConnectorConstants.FIELD_TIMESTAMP, row.getTimestamp());
+			struct.put(LogMinerSourceConnectorConstants.FIELD_SQL_REDO, row.getSqlRedo());
+			struct.put(LogMinerSourceConnectorConstants.FIELD_OPERATION, row.getOperation());
+			event.setOffset(new Offset(
+					row.getRestartSystemChangeNumber() > 0 ? row.getRestartSystemChangeNumber()
+							: row.getSystemChangeNumber(),
+					row.getCommitSystemChangeNumber(), row.getRowId(), row.getTimestamp().getTime(),
+					row.getRedoRecordId(), row.getSubStatement()));
+
+			LOGGER.trace("Poll added event: {}", event.toString());
 			events.add(event);
-			LOGGER.debug("ResultSet simple poll thread returned {} events", events.size());
-			return events;
 		}
-		
-		return null;
 	}
 
-	private void populateEventField(LogMinerEvent event, String field, ResultSet rs) throws SQLException {
-		Object o = convertFieldValue(rs.getString(field), event.getSchema().field(field).schema());
-		event.getStruct().put(field, o);
+	/**
+	 * Progress of mining regardless of whether any of the task's tables changed.
+	 * Only known once a mining window completed and everything it mined has been
+	 * returned by {@link #poll()}, with no transaction left open.
+	 * 
+	 * @return SCN up to which every change has been returned by poll, or 0 when
+	 *         not known
+	 */
+	public long getMinedSystemChangeNumber() {
+		if (cursorSource == null) {
+			return 0L;
+		}
+		/* Rows of a window are buffered before it completes, so read this first */
+		long scn = cursorSource.getCompletedSCN();
+		if (!rowBuffer.isEmpty()) {
+			return 0L;
+		}
+		if (transactionBuffer != null && transactionBuffer.getOpenTransactions() > 0) {
+			return 0L;
+		}
+		return scn;
+	}
+
+	public LogMinerMetrics getMetrics() {
+		return metrics;
 	}
 
 	public List<Table> getVisibleTables() throws SQLException {
@@ -200,7 +431,7 @@ public class LogMinerSession implements AutoCloseable {
 					 * hurt to check. This needs to succeed for logminer to work in multitenant env.
 					 */
 					try (Statement s = connection.createStatement()) {
-						s.execute("ALTER SESSION SET CONTAINER = CDB$ROOT");
+						s.execute(SET_CONTAINER_ROOT);
 						LOGGER.debug("Set session multitenant container = CDB$ROOT");
 						multitenant = Boolean.TRUE;
 					}
@@ -211,13 +442,39 @@ public class LogMinerSession implements AutoCloseable {
 	}
 
 	private PreparedStatement createMiningQuery(Map<Table, Offset> state) throws SQLException {
-		String baseMiningStatement = getDialect().getStatement(LogMinerDialect.Statement.CONTENTS);
+		String filterMode = config.getString(LogMinerSourceConnectorConfig.MINING_FILTER_MODE_CONFIG);
+		boolean tables = LogMinerSourceConnectorConfig.MINING_FILTER_MODE_TABLES.equals(filterMode);
+		if (tables && committedDataOnly) {
+			objectFilter = null;
+			return createTableMiningQuery(state);
+		}
 
+		boolean owners = LogMinerSourceConnectorConfig.MINING_FILTER_MODE_OWNERS.equals(filterMode);
+		Map<Table, Long> commitSCNFloors = new HashMap<>();
+		for (Map.Entry<Table, Offset> entry : state.entrySet()) {
+			commitSCNFloors.put(entry.getKey(), entry.getValue().getCommitSystemChangeNumber());
+		}
+		/*
+		 * Uncommitted rows carry no COMMIT_SCN for the query to test, so per-table
+		 * offsets are always applied by the filter; matched by name in tables mode
+		 */
+		Map<Table, long[]> objectKeys = tables ? Collections.emptyMap()
+				: getDialect().getObjectKeys(getConnection(), state.keySet());
+		objectFilter = new MiningObjectFilter(objectKeys, commitSCNFloors, tables || owners);
+		if (tables) {
+			return createTableMiningQuery(state);
+		}
+		return owners ? createOwnerMiningQuery(state) : createObjectMiningQuery();
+	}
+
+	private PreparedStatement createTableMiningQuery(Map<Table, Offset> state) throws SQLException {
 		StringBuffer where = new StringBuffer("(");
 		Iterator<Table> it = state.keySet().iterator();
 		while (it.hasNext()) {
 			Table table = it.next();
-			where.append("(SRC_CON_NAME = ? AND SEG_OWNER = ? AND TABLE_NAME = ? AND COMMIT_SCN >= ?)");
+			where.append(committedDataOnly
+					? "(SRC_CON_NAME = ? AND SEG_OWNER = ? AND TABLE_NAME = ? AND COMMIT_SCN >= ?)"
+					: "(SRC_CON_NAME = ? AND SEG_OWNER = ? AND TABLE_NAME = ?)");
 			LOGGER.trace("Added mining query WHERE condition for {}", table.getQName());
 			if (it.hasNext()) {
 				where.append(" OR ");
@@ -225,13 +482,7 @@ public class LogMinerSession implements AutoCloseable {
 		}
 		where.append(")");
 
-		String completedMiningQuery = baseMiningStatement + where.toString();
-		LOGGER.debug("Completed session mining query: {}", completedMiningQuery);
-
-		int fetchSize = config.getInt(LogMinerSourceConnectorConfig.DB_FETCH_SIZE_CONFIG);
-		PreparedStatement ps = connection.prepareCall(completedMiningQuery);
-		ps.setFetchSize(fetchSize);
-		LOGGER.debug("Set mining query fetch size = {}", fetchSize);
+		PreparedStatement ps = prepareMiningQuery(where.toString());
 
 		int paramIdx = 0;
 		Iterator<Table> it2 = state.keySet().iterator();
@@ -241,7 +492,9 @@ public class LogMinerSession implements AutoCloseable {
 			ps.setString(++paramIdx, table.getDatabaseName());
 			ps.setString(++paramIdx, table.getOwnerName());
 			ps.setString(++paramIdx, table.getTableName());
-			ps.setLong(++paramIdx, offset.getCommitSystemChangeNumber());
+			if (committedDataOnly) {
+				ps.setLong(++paramIdx, offset.getCommitSystemChangeNumber());
+			}
 
 			LOGGER.trace("Set mining query WHERE parameters for {} @ SCN {}", table.getQName(),
 					offset.getCommitSystemChangeNumber());
@@ -250,6 +503,164 @@ public class LogMinerSession implements AutoCloseable {
 		return ps;
 	}
 
+	private PreparedStatement createObjectMiningQuery() throws SQLException {
+		long[] objectKeys = objectFilter.getObjectKeys();
+		if (objectKeys.length == 0) {
+			throw new ConnectException("None of the task's tables could be resolved to object ids");
+		}
+
+		boolean multitenant = isMultitenant();
+		StringBuilder where = new StringBuilder(committedDataOnly ? "COMMIT_SCN >= ? AND " : "");
+		appendInLists(where, multitenant ? "(SRC_CON_ID, DATA_OBJ#)" : "DATA_OBJ#", multitenant ? "(?, ?)" : "?",
+				objectKeys.length);
+
+		PreparedStatement ps = prepareMiningQuery(where.toString());
+
+		int paramIdx = 0;
+		if (committedDataOnly) {
+			ps.setLong(++paramIdx, objectFilter.getStartSCN());
+		}
+		for (long objectKey : objectKeys) {
+			if (multitenant) {
+				ps.setLong(++paramIdx, BaseLogMinerDialect.containerId(objectKey));
+			}
+			ps.setLong(++paramIdx, BaseLogMinerDialect.objectId(objectKey));
+		}
+		LOGGER.debug("Set mining query WHERE parameters for {} objects @ SCN {}", objectKeys.length,
+				objectFilter.getStartSCN());
+
+		return ps;
+	}
+
+	private PreparedStatement createOwnerMiningQuery(Map<Table, Offset> state) throws SQLException {
+		Set<Table> owners = new LinkedHashSet<>();
+		for (Table table : state.keySet()) {
+			owners.add(new Table(table.getDatabaseName(), table.getOwnerName(), null));
+		}
+
+		boolean multitenant = isMultitenant();
+		StringBuilder where = new StringBuilder(committedDataOnly ? "COMMIT_SCN >= ? AND " : "");
+		appendInLists(where, multitenant ? "(SRC_CON_NAME, SEG_OWNER)" : "SEG_OWNER", multitenant ? "(?, ?)" : "?",
+				owners.size());
+
+		PreparedStatement ps = prepareMiningQuery(where.toString());
+
+		int paramIdx = 0;
+		if (committedDataOnly) {
+			ps.setLong(++paramIdx, objectFilter.getStartSCN());
+		}
+		for (Table owner : owners) {
+			if (multitenant) {
+				ps.setString(++paramIdx, owner.getDatabaseName());
+			}
+			ps.setString(++paramIdx, owner.getOwnerName());
+		}
+		LOGGER.debug("Set mining query WHERE parameters for {} owners @ SCN {}", owners.size(),
+				objectFilter.getStartSCN());
+
+		return ps;
+	}
+
+	/**
+	 * Append "column IN (element, ...)" for count elements, split into lists of
+	 * at most {@value #MAX_IN_LIST_SIZE} joined with OR
+	 */
+	private static void appendInLists(StringBuilder where, String column, String element, int count) {
+		where.append("(");
+		for (int i = 0; i < count; i++) {
+			if (i % MAX_IN_LIST_SIZE == 0) {
+				if (i > 0) {
+					where.append(") OR ");
+				}
+				where.append(column).append(" IN (");
+			} else {
+				where.append(", ");
+			}
+			where.append(element);
+		}
+		where.append("))");
+	}
+
+	private PreparedStatement prepareMiningQuery(String where) throws SQLException {
+		String baseMiningStatement = getDialect().getStatement(committedDataOnly
+				? LogMinerDialect.Statement.CONTENTS : LogMinerDialect.Statement.CONTENTS_UNCOMMITTED);
+		String completedMiningQuery = baseMiningStatement + where;
+		LOGGER.debug("Completed session mining query: {}", completedMiningQuery);
+
+		int fetchSize = config.getInt(LogMinerSourceConnectorConfig.DB_FETCH_SIZE_CONFIG);
+		if (fetchSizeController != null) {
+			fetchSize = fetchSizeController.getFetchSize();
+		}
+		PreparedStatement ps = connection.prepareCall(completedMiningQuery);
+		ps.setFetchSize(fetchSize);
+		LOGGER.debug("Set mining query fetch size = {}", fetchSize);
+		return ps;
+	}
+
+	private MiningCursorSource createCursorSource(long startSCN) throws SQLException {
+		String miningMode = config.getString(LogMinerSourceConnectorConfig.MINING_MODE_CONFIG);
+		if (LogMinerSourceConnectorConfig.MINING_MODE_WINDOWED.equals(miningMode)) {
+			LOGGER.debug("Using SCN windowed mining from SCN {}", startSCN);
+			MiningWindowController windowController = new MiningWindowController(
+					config.getLong(LogMinerSourceConnectorConfig.MINING_WINDOW_MIN_CONFIG),
+					config.getLong(LogMinerSourceConnectorConfig.MINING_WINDOW_MAX_CONFIG),
+					config.getLong(LogMinerSourceConnectorConfig.MINING_WINDOW_TARGET_CONFIG));
+			return new WindowedMiningCursorSource(getConnection(), getDialect(), miningQuery, startSCN,
+					windowController, metrics,
+					config.getLong(LogMinerSourceConnectorConfig.MINING_WINDOW_POLL_INTERVAL_CONFIG),
+					committedDataOnly);
+		}
+		return new ContinuousMiningCursorSource(getConnection(), getDialect(), miningQuery, startSCN,
+				committedDataOnly);
+	}
+
+	private TransactionBuffer createTransactionBuffer() {
+		String spillDir = config.getString(LogMinerSourceConnectorConfig.TRANSACTION_SPILL_DIR_CONFIG);
+		Path spillDirectory = Paths.get(spillDir == null || spillDir.isEmpty()
+				? System.getProperty(JAVA_TMPDIR_PROPERTY) : spillDir);
+		try {
+			Files.createDirectories(spillDirectory);
+		} catch (IOException e) {
+			throw new ConnectException("Cannot create transaction spill directory " + spillDirectory, e);
+		}
+
+		LOGGER.debug("Mining uncommitted data, buffering open transactions in the connector, spilling to {}",
+				spillDirectory);
+		return new TransactionBuffer(config.getLong(LogMinerSourceConnectorConfig.TRANSACTION_BUFFER_MAX_BYTES_CONFIG),
+				config.getLong(LogMinerSourceConnectorConfig.TRANSACTION_SPILL_THRESHOLD_BYTES_CONFIG), spillDirectory,
+				metrics);
+	}
+
+	private void createDecodeWorkers() {
+		int workers = config.getInt(LogMinerSourceConnectorConfig.DECODE_WORKERS_CONFIG);
+		int shapeCacheSize = config.getInt(LogMinerSourceConnectorConfig.REDO_SHAPE_CACHE_SIZE_CONFIG);
+		decodeStates = new DecodeState[workers];
+		for (int i = 0; i < workers; i++) {
+			decodeStates[i] = new DecodeState(new RedoShapeCache(shapeCacheSize, metrics));
+		}
+		metrics.setDecodeWorkers(workers);
+
+		if (workers > 1) {
+			LOGGER.debug("Starting {} decode workers", workers);
+			AtomicInteger sequence = new AtomicInteger();
+			decodeExecutor = Executors.newFixedThreadPool(workers, runnable -> {
+				Thread thread = new Thread(runnable, "LogMinerDecodeWorker-" + sequence.incrementAndGet());
+				thread.setDaemon(true);
+				return thread;
+			});
+		}
+	}
+
+	private FetchSizeController createFetchSizeController() {
+		if (!config.getBoolean(LogMinerSourceConnectorConfig.DB_FETCH_SIZE_ADAPTIVE_CONFIG)) {
+			return null;
+		}
+		return new FetchSizeController(config.getInt(LogMinerSourceConnectorConfig.DB_FETCH_SIZE_CONFIG),
+				config.getInt(LogMinerSourceConnectorConfig.DB_FETCH_SIZE_MIN_CONFIG),
+				config.getInt(LogMinerSourceConnectorConfig.DB_FETCH_SIZE_MAX_CONFIG),
+				config.getLong(LogMinerSourceConnectorConfig.DB_FETCH_MAX_BYTES_CONFIG), metrics);
+	}
+
 	private synchronized Connection getConnection() throws ConnectException {
 		try {
 			if (connection == null) {
@@ -266,6 +677,18 @@ public class LogMinerSession implements AutoCloseable {
 		return connection;
 	}
 
+	private synchronized Connection getDictionaryConnection() throws SQLException {
+		if (dictionaryConnection == null) {
+			dictionaryConnection = openConnection();
+			if (isMultitenant()) {
+				try (Statement s = dictionaryConnection.createStatement()) {
+					s.execute(SET_CONTAINER_ROOT);
+				}
+			}
+		}
+		return dictionaryConnection;
+	}
+
 	private BaseLogMinerDialect getDialect() throws SQLException {
 		if (isMultitenant()) {
 			return LogMinerSQLFactory.getInstance(Strategy.MULTITENANT);
@@ -288,6 +711,10 @@ public class LogMinerSession implements AutoCloseable {
 	}
 
 	private void initializeConnection() throws SQLException {
+		connection = openConnection();
+	}
+
+	private Connection openConnection() throws SQLException {
 		String jdbcURL = config.getString(LogMinerSourceConnectorConfig.CONNECTION_URL_CONFIG);
 		String user = config.getString(LogMinerSourceConnectorConfig.CONNECTION_USER_CONFIG);
 		String password = config.getPassword(LogMinerSourceConnectorConfig.CONNECTION_PASSWORD_CONFIG).value();
@@ -296,22 +723,34 @@ public class LogMinerSession implements AutoCloseable {
 		properties.setProperty("user", user);
 		properties.setProperty("password", password);
 		LOGGER.debug("Initializing connection to {}", jdbcURL);
-		connection = DriverManager.getConnection(jdbcURL, properties);
+		Connection c = DriverManager.getConnection(jdbcURL, properties);
 
-		DatabaseMetaData md = connection.getMetaData();
+		DatabaseMetaData md = c.getMetaData();
 		LOGGER.info("Connected to {}", md.getDatabaseProductVersion());
+
+		/*
+		 * LogMiner renders datetimes in redo SQL with the mining session's NLS
+		 * formats, so fix them to the one form the literal decoder parses directly
+		 */
+		try (Statement s = c.createStatement()) {
+			s.execute(SET_SESSION_NLS);
+			LOGGER.debug("Set session NLS formats");
+		}
+		return c;
 	}
 
 	/**
-	 * Use the explicit config SCN setting, or default to minimum of supplied state
-	 * offsets
+	 * Use the explicit config SCN setting, or default to the stored task
+	 * watermark, or failing that the minimum of supplied state offsets
 	 * 
 	 * @param state
+	 * @param resumeSCN
 	 * @return starting system change number
 	 * @throws SQLException
 	 * @throws ConnectException
 	 */
-	private Long getSessionStartSCN(Map<Table, Offset> state) throws ConnectException, SQLException {
+	private Long getSessionStartSCN(Map<Table, Offset> state, Long resumeSCN)
+			throws ConnectException, SQLException {
 		Long currentSCN = getCurrentSCN();
 		Long minimumSCN = getMinimumSCN();
 
@@ -335,6 +774,9 @@ public class LogMinerSession implements AutoCloseable {
 						currentSCN);
 				return currentSCN;
 			}
+		} else if (resumeSCN != null) {
+			LOGGER.debug("Session resuming from task watermark SCN = {}", resumeSCN);
+			requestedSCN = resumeSCN;
 		} else {
 			requestedSCN = getMinimumOffsetSCN(state);
 		}
@@ -394,141 +836,290 @@ public class LogMinerSession implements AutoCloseable {
 		return possibleMinimum.isPresent() ? possibleMinimum.get().getSystemChangeNumber() : 0L;
 	}
 
-	private void logRawMinerData() throws SQLException {
-		StringBuffer b = new StringBuffer();
-		for (int i = 1; i < rs.getMetaData().getColumnCount(); i++) {
-			String columnName = rs.getMetaData().getColumnName(i);
-			Object columnValue = rs.getObject(i);
-			b.append("[" + columnName + "=" + (columnValue == null ? "NULL" : columnValue.toString()) + "]");
+	private LogMinerEvent createEvent(Table table, String redoSql, boolean truncated, DecodeState state)
+			throws SQLException {
+		TableSchema tableSchema = tableSchemas.get(table);
+		if (tableSchema != null) {
+			LOGGER.trace("{} retrieved from cache", tableSchema);
+		} else {
+			tableSchema = refreshTableSchema(table, null);
+		}
+
+		try {
+			return createEvent(tableSchema, redoSql, truncated, state);
+		} catch (DataException e) {
+			LOGGER.info("Redo SQL for {} does not match schema version {}, reloading from dictionary: {}",
+					table.getQName(), tableSchema.getVersion(), e.getMessage());
+			return createEvent(refreshTableSchema(table, tableSchema), redoSql, truncated, state);
 		}
-		LOGGER.trace(b.toString());
 	}
 
-	private LogMinerEvent createEvent(Table table, String redoSql) throws SQLException {
-		Schema rowSchema;
-		if (schemas.containsKey(table)) {
-			rowSchema = schemas.get(table);
-			LOGGER.trace("{} retrieved from cache", rowSchema.toString());
-		} else {
-			rowSchema = createRowSchema(table);
-			schemas.put(table, rowSchema);
-			LOGGER.info("{} created and cached", rowSchema.toString());
+	private LogMinerEvent createEvent(TableSchema tableSchema, String redoSql, boolean truncated,
+			DecodeState state) throws SQLException {
+		Schema rowSchema = tableSchema.getRowSchema();
+		Schema eventSchema = tableSchema.getEventSchema();
+		Struct eventStruct = truncated ? createTruncatedEventStruct(rowSchema, eventSchema)
+				: createEventStruct(tableSchema, redoSql, state);
+
+		return new LogMinerEvent(tableSchema.getTable(), eventSchema, eventStruct);
+	}
+
+	/**
+	 * Creates the schema of a table not yet described, or replaces a stale
+	 * version with the next one. Decode workers share the table schemas, but the
+	 * dictionary query is a single statement so schemas are created one at a time.
+	 * 
+	 * @param table
+	 *            table to describe
+	 * @param stale
+	 *            version found not to match the table's redo, or null if none is
+	 *            cached
+	 * @return the current schema of the table
+	 */
+	private TableSchema refreshTableSchema(Table table, TableSchema stale) throws SQLException {
+		synchronized (schemaLock) {
+			TableSchema current = tableSchemas.get(table);
+			if (current != null && current != stale) {
+				return current;
+			}
+			List<Column> columns = describeTable(table);
+			int version = nextSchemaVersion(table, stale, columns);
+			TableSchema tableSchema = new TableSchema(table, version, createRowSchema(table, version, columns));
+			tableSchemas.put(table, tableSchema);
+			/* A DDL time read on start no longer holds once the table was seen to change */
+			snapshotTableSchema(table,
+					stale == null ? lastDdlTimes.getOrDefault(table, SchemaSnapshot.UNKNOWN_DDL_TIME)
+							: SchemaSnapshot.UNKNOWN_DDL_TIME,
+					version, columns);
+			LOGGER.info("{} created and cached", tableSchema.getRowSchema().toString());
+			return tableSchema;
 		}
+	}
 
-		Schema eventSchema = SchemaBuilder.struct()
-				.name(table.getQName() + LogMinerSourceConnectorConstants.EVENT_SCHEMA_QUALIFIER)
-				.field(LogMinerSourceConnectorConstants.FIELD_SCN, Schema.INT64_SCHEMA)
-				.field(LogMinerSourceConnectorConstants.FIELD_COMMIT_SCN, Schema.INT64_SCHEMA)
-				.field(LogMinerSourceConnectorConstants.FIELD_ROW_ID, Schema.STRING_SCHEMA)
-				.field(LogMinerSourceConnectorConstants.FIELD_SEG_OWNER, Schema.STRING_SCHEMA)
-				.field(LogMinerSourceConnectorConstants.FIELD_TABLE_NAME, Schema.STRING_SCHEMA)
-				.field(LogMinerSourceConnectorConstants.FIELD_TIMESTAMP, org.apache.kafka.connect.data.Timestamp.SCHEMA)
-				.field(LogMinerSourceConnectorConstants.FIELD_SQL_REDO, Schema.STRING_SCHEMA)
-				.field(LogMinerSourceConnectorConstants.FIELD_OPERATION, Schema.STRING_SCHEMA)
-				.field(LogMinerSourceConnectorConstants.FIELD_BEFORE_DATA_ROW, rowSchema)
-				.field(LogMinerSourceConnectorConstants.FIELD_AFTER_DATA_ROW, rowSchema).build();
-		LOGGER.trace("{} created", eventSchema.toString());
+	/**
+	 * Create the schemas of the task's tables known before mining starts: those
+	 * restored from the schema snapshot, then, with prefetch enabled, the rest
+	 * described with the bulk dictionary query
+	 */
+	private void initTableSchemas(Collection<Table> tables) throws SQLException {
+		schemaSnapshot = createSchemaSnapshot(tables);
+		Collection<Table> undescribed = schemaSnapshot == null ? tables : restoreTableSchemas(tables);
+		if (config.getBoolean(LogMinerSourceConnectorConfig.DICTIONARY_PREFETCH_CONFIG) && !undescribed.isEmpty()) {
+			prefetchTableSchemas(undescribed);
+		}
+		synchronized (schemaLock) {
+			saveSchemaSnapshot();
+		}
+	}
 
-		Struct eventStruct = createEventStruct(rowSchema, eventSchema, redoSql);
+	private SchemaSnapshot createSchemaSnapshot(Collection<Table> tables) {
+		String snapshotDir = config.getString(LogMinerSourceConnectorConfig.SCHEMA_SNAPSHOT_DIR_CONFIG);
+		if (snapshotDir == null || snapshotDir.isEmpty()) {
+			return null;
+		}
+		Path snapshotDirectory = Paths.get(snapshotDir);
+		try {
+			Files.createDirectories(snapshotDirectory);
+		} catch (IOException e) {
+			throw new ConnectException("Cannot create schema snapshot directory " + snapshotDirectory, e);
+		}
 
-		return new LogMinerEvent(eventSchema, eventStruct);
+		SchemaSnapshot snapshot = new SchemaSnapshot(SchemaSnapshot.getFile(snapshotDirectory, tables));
+		snapshot.load();
+		return snapshot;
 	}
 
-	private Schema createRowSchema(Table table) throws SQLException {
-		LOGGER.debug("Creating schema for {}", table.getQName());
-		SchemaBuilder structBuilder = SchemaBuilder.struct()
-				.name(table.getQName() + LogMinerSourceConnectorConstants.ROW_SCHEMA_QUALIFIER);
-		// TODO: consider using dictionary LAST_DDL_TIME to Integer magic to set schema
-		// version
+	/**
+	 * Create the schemas of tables whose LAST_DDL_TIME matches the one they were
+	 * snapshotted at, keeping their schema versions. The DDL times are read
+	 * before any table is described, so a change made in between is only ever
+	 * seen as a mismatch on the next start.
+	 * 
+	 * @return tables that still need describing
+	 */
+	private Collection<Table> restoreTableSchemas(Collection<Table> tables) throws SQLException {
+		lastDdlTimes = getDialect().getLastDdlTimes(getDictionaryConnection(), tables);
+		List<Table> undescribed = new ArrayList<>();
+		synchronized (schemaLock) {
+			for (Table t : tables) {
+				Table table = tableRegistry.register(t);
+				SchemaSnapshot.Entry entry = schemaSnapshot.get(table);
+				Long lastDdlTime = lastDdlTimes.get(table);
+				if (entry != null && lastDdlTime != null && entry.getLastDdlTime() == lastDdlTime) {
+					tableSchemas.put(table, new TableSchema(table, entry.getVersion(),
+							createRowSchema(table, entry.getVersion(), entry.getColumns())));
+				} else {
+					undescribed.add(table);
+				}
+			}
+		}
+		metrics.schemaSnapshotRestored(tables.size() - undescribed.size(), undescribed.size());
+		LOGGER.info("Restored schemas of {} of {} tables from {}", tables.size() - undescribed.size(),
+				tables.size(), schemaSnapshot.getPath());
+		return undescribed;
+	}
+
+	/**
+	 * Describe the task's tables with the bulk dictionary query and create their
+	 * schemas up front, so the poll loop does not stall on one dictionary query
+	 * per table as their first rows arrive. Tables not found are left to be
+	 * described when a row for them shows up.
+	 */
+	private void prefetchTableSchemas(Collection<Table> tables) throws SQLException {
+		long started = System.currentTimeMillis();
+		Map<Table, List<Column>> columns = getDialect().getColumns(getDictionaryConnection(), tables);
+		synchronized (schemaLock) {
+			for (Map.Entry<Table, List<Column>> entry : columns.entrySet()) {
+				Table table = tableRegistry.register(entry.getKey());
+				if (!tableSchemas.containsKey(table)) {
+					int version = nextSchemaVersion(table, null, entry.getValue());
+					tableSchemas.put(table,
+							new TableSchema(table, version, createRowSchema(table, version, entry.getValue())));
+					snapshotTableSchema(table, lastDdlTimes.getOrDefault(table, SchemaSnapshot.UNKNOWN_DDL_TIME),
+							version, entry.getValue());
+				}
+			}
+		}
+		long elapsed = System.currentTimeMillis() - started;
+		metrics.dictionaryPrefetched(columns.size(), elapsed);
+		LOGGER.info("Prefetched schemas of {} of {} tables in {} ms", columns.size(), tables.size(), elapsed);
+	}
+
+	/**
+	 * @return the version of a newly described table schema: the next after a
+	 *         stale one, or, for a table in the schema snapshot, its snapshot
+	 *         version if the columns are unchanged and the next one otherwise
+	 */
+	private int nextSchemaVersion(Table table, TableSchema stale, List<Column> columns) {
+		if (stale != null) {
+			return stale.getVersion() + 1;
+		}
+		SchemaSnapshot.Entry entry = schemaSnapshot == null ? null : schemaSnapshot.get(table);
+		if (entry == null) {
+			return 1;
+		}
+		return entry.getColumns().equals(columns) ? entry.getVersion() : entry.getVersion() + 1;
+	}
+
+	private void snapshotTableSchema(Table table, long lastDdlTime, int version, List<Column> columns) {
+		if (schemaSnapshot != null) {
+			schemaSnapshot.put(table, lastDdlTime, version, columns);
+		}
+	}
+
+	private void saveSchemaSnapshot() {
+		if (schemaSnapshot != null) {
+			try {
+				schemaSnapshot.save();
+			} catch (IOException e) {
+				LOGGER.warn("Cannot save schema snapshot {}", schemaSnapshot.getPath(), e);
+			}
+		}
+	}
 
+	private List<Column> describeTable(Table table) throws SQLException {
+		long started = System.nanoTime();
 		dictionaryQuery.setString(1, table.getDatabaseName());
 		dictionaryQuery.setString(2, table.getOwnerName());
 		dictionaryQuery.setString(3, table.getTableName());
 
+		List<Column> columns = new ArrayList<>();
 		try (ResultSet drs = dictionaryQuery.executeQuery()) {
-			if (drs.isBeforeFirst()) {
-				// TODO: No result, charf
-			}
 			while (drs.next()) {
-				String columnName = drs.getString(LogMinerSourceConnectorConstants.FIELD_COLUMN_NAME);
-				Boolean nullable = drs.getString(LogMinerSourceConnectorConstants.FIELD_NULLABLE).equals("Y") ? true
-						: false;
-				String dataType = drs.getString(LogMinerSourceConnectorConstants.FIELD_DATA_TYPE);
-				if (dataType.contains(LogMinerSourceConnectorConstants.TYPE_TIMESTAMP))
-					dataType = LogMinerSourceConnectorConstants.TYPE_TIMESTAMP;
-				int dataLength = drs.getInt(LogMinerSourceConnectorConstants.FIELD_DATA_LENGTH);
-				int dataScale = drs.getInt(LogMinerSourceConnectorConstants.FIELD_DATA_SCALE);
-				int dataPrecision = drs.getInt(LogMinerSourceConnectorConstants.FIELD_DATA_PRECISION);
-				Boolean pkColumn = drs.getInt(LogMinerSourceConnectorConstants.FIELD_PK_COLUMN) == 1 ? true : false;
-				Boolean uqColumn = drs.getInt(LogMinerSourceConnectorConstants.FIELD_UQ_COLUMN) == 1 ? true : false;
-				Schema columnSchema = null;
-
-				switch (dataType) {
-				case LogMinerSourceConnectorConstants.TYPE_NUMBER: {
-					if (dataScale > 0 || dataPrecision == 0) {
-						columnSchema = nullable ? Schema.OPTIONAL_FLOAT64_SCHEMA : Schema.FLOAT64_SCHEMA;
-					} else {
-						switch (dataPrecision) {
-						case 1:
-						case 2:
-							columnSchema = nullable ? Schema.OPTIONAL_INT8_SCHEMA : Schema.INT8_SCHEMA;
-							break;
-						case 3:
-						case 4:
-							columnSchema = nullable ? Schema.OPTIONAL_INT16_SCHEMA : Schema.INT16_SCHEMA;
-							break;
-						case 5:
-						case 6:
-						case 7:
-						case 8:
-						case 9:
-							columnSchema = nullable ? Schema.OPTIONAL_INT32_SCHEMA : Schema.INT32_SCHEMA;
-							break;
-						default:
-							columnSchema = nullable ? Schema.OPTIONAL_INT64_SCHEMA : Schema.INT64_SCHEMA;
-							break;
-						}
+				columns.add(BaseLogMinerDialect.readColumn(drs));
+			}
+		}
+		metrics.dictionaryLookup(System.nanoTime() - started);
+		return columns;
+	}
+
+	private Schema createRowSchema(Table table, int version, List<Column> columns) {
+		LOGGER.debug("Creating schema version {} for {}", version, table.getQName());
+		SchemaBuilder structBuilder = SchemaBuilder.struct()
+				.name(table.getQName() + LogMinerSourceConnectorConstants.ROW_SCHEMA_QUALIFIER).version(version);
+
+		for (Column column : columns) {
+			boolean nullable = column.isNullable();
+			int dataScale = column.getDataScale();
+			int dataPrecision = column.getDataPrecision();
+			Schema columnSchema = null;
+
+			switch (column.getDataType()) {
+			case LogMinerSourceConnectorConstants.TYPE_NUMBER: {
+				if (dataScale > 0 || dataPrecision == 0) {
+					columnSchema = nullable ? Schema.OPTIONAL_FLOAT64_SCHEMA : Schema.FLOAT64_SCHEMA;
+				} else {
+					switch (dataPrecision) {
+					case 1:
+					case 2:
+						columnSchema = nullable ? Schema.OPTIONAL_INT8_SCHEMA : Schema.INT8_SCHEMA;
+						break;
+					case 3:
+					case 4:
+						columnSchema = nullable ? Schema.OPTIONAL_INT16_SCHEMA : Schema.INT16_SCHEMA;
+						break;
+					case 5:
+					case 6:
+					case 7:
+					case 8:
+					case 9:
+						columnSchema = nullable ? Schema.OPTIONAL_INT32_SCHEMA : Schema.INT32_SCHEMA;
+						break;
+					default:
+						columnSchema = nullable ? Schema.OPTIONAL_INT64_SCHEMA : Schema.INT64_SCHEMA;
+						break;
 					}
-					break;
-				}
-				case "CHAR":
-				case "VARCHAR":
-				case "VARCHAR2":
-				case "NCHAR":
-				case "NVARCHAR":
-				case "NVARCHAR2":
-				case "LONG":
-				case "CLOB": {
-					columnSchema = nullable ? Schema.OPTIONAL_STRING_SCHEMA : Schema.STRING_SCHEMA;
-					break;
-				}
-				case LogMinerSourceConnectorConstants.TYPE_DATE:
-				case LogMinerSourceConnectorConstants.TYPE_TIMESTAMP: {
-					columnSchema = nullable ? LogMinerSourceConnectorConstants.SCEMA_OPTIONAL_TIMESTAMP
-							: LogMinerSourceConnectorConstants.SCHEMA_TIMESTAMP;
-					break;
-				}
-				default:
-					columnSchema = nullable ? Schema.OPTIONAL_STRING_SCHEMA : Schema.STRING_SCHEMA;
-					break;
 				}
-				structBuilder.field(columnName, columnSchema);
+				break;
+			}
+			case "CHAR":
+			case "VARCHAR":
+			case "VARCHAR2":
+			case "NCHAR":
+			case "NVARCHAR":
+			case "NVARCHAR2":
+			case "LONG":
+			case "CLOB": {
+				columnSchema = nullable ? Schema.OPTIONAL_STRING_SCHEMA : Schema.STRING_SCHEMA;
+				break;
+			}
+			case LogMinerSourceConnectorConstants.TYPE_DATE:
+			case LogMinerSourceConnectorConstants.TYPE_TIMESTAMP: {
+				columnSchema = nullable ? LogMinerSourceConnectorConstants.SCEMA_OPTIONAL_TIMESTAMP
+						: LogMinerSourceConnectorConstants.SCHEMA_TIMESTAMP;
+				break;
+			}
+			default:
+				columnSchema = nullable ? Schema.OPTIONAL_STRING_SCHEMA : Schema.STRING_SCHEMA;
+				break;
 			}
+			structBuilder.field(column.getName(), columnSchema);
 		}
 
 		return structBuilder.build();
 	}
 
-	private Struct createEventStruct(Schema rowSchema, Schema eventSchema, String redoSql) throws SQLException {
+	private Struct createEventStruct(TableSchema tableSchema, String redoSql, DecodeState state)
+			throws SQLException {
+		Schema rowSchema = tableSchema.getRowSchema();
+		RedoSQLDecoder redoDecoder = state.decoder;
 		try {
-			Map<String, Map<String, String>> changes = LogMinerSQLParser.parseRedoSQL(redoSql);
+			if (!redoDecoder.decode(redoSql)) {
+				metrics.redoParseFallback();
+			}
 
-			Struct before = createDataStruct(rowSchema,
-					changes.get(LogMinerSourceConnectorConstants.FIELD_BEFORE_DATA_ROW));
-			Struct after = createDataStruct(rowSchema,
-					changes.get(LogMinerSourceConnectorConstants.FIELD_AFTER_DATA_ROW));
+			Struct before;
+			Struct after;
+			RedoShapeCache.Shape shape = state.shapeCache.get(tableSchema.getTable(), rowSchema, redoDecoder);
+			if (shape != null) {
+				before = createDataStruct(tableSchema, redoDecoder.getBefore(), shape.getBeforeFields());
+				after = createDataStruct(tableSchema, redoDecoder.getAfter(), shape.getAfterFields());
+			} else {
+				before = createDataStruct(tableSchema, redoDecoder.getBefore());
+				after = createDataStruct(tableSchema, redoDecoder.getAfter());
+			}
 
-			Struct event = new Struct(eventSchema);
+			Struct event = new Struct(tableSchema.getEventSchema());
 			event.put(LogMinerSourceConnectorConstants.FIELD_BEFORE_DATA_ROW, before);
 			event.put(LogMinerSourceConnectorConstants.FIELD_AFTER_DATA_ROW, after);
 			LOGGER.trace("Created event {}", event.toString());
@@ -538,38 +1129,66 @@ public class LogMinerSession implements AutoCloseable {
 		}
 	}
 
-	private Struct createDataStruct(Schema schema, Map<String, String> data) {
+	/**
+	 * Truncated redo SQL cannot be parsed, so its event carries the statement
+	 * prefix with empty before and after rows
+	 */
+	private Struct createTruncatedEventStruct(Schema rowSchema, Schema eventSchema) {
+		Struct event = new Struct(eventSchema);
+		event.put(LogMinerSourceConnectorConstants.FIELD_BEFORE_DATA_ROW, new Struct(rowSchema));
+		event.put(LogMinerSourceConnectorConstants.FIELD_AFTER_DATA_ROW, new Struct(rowSchema));
+		return event;
+	}
+
+	private Struct createDataStruct(TableSchema tableSchema, RedoSQLDecoder.ColumnValues data) {
+		Schema schema = tableSchema.getRowSchema();
 		Struct dataStruct = new Struct(schema);
-		for (String field : data.keySet()) {
-			String value = data.get(field);
-			Schema fieldSchema = schema.field(field).schema();
-			dataStruct.put(field, convertFieldValue(value, fieldSchema));
+		for (int i = 0; i < data.size(); i++) {
+			Field field = schema.field(data.getColumn(i));
+			if (field == null) {
+				throw new DataException(data.getColumn(i) + " is not a valid field name");
+			}
+			dataStruct.put(field, convertFieldValue(tableSchema, field, data, i));
 		}
 		return dataStruct;
 	}
 
-	private Object convertFieldValue(String value, Schema fieldSchema) {
-		if (fieldSchema == null || fieldSchema.equals(Schema.STRING_SCHEMA)) {
-			return value;
+	private Struct createDataStruct(TableSchema tableSchema, RedoSQLDecoder.ColumnValues data, Field[] fields) {
+		Struct dataStruct = new Struct(tableSchema.getRowSchema());
+		for (int i = 0; i < fields.length; i++) {
+			dataStruct.put(fields[i], convertFieldValue(tableSchema, fields[i], data, i));
 		}
-		if (fieldSchema.equals(Schema.INT8_SCHEMA)) {
-			return Byte.parseByte(value);
-		}
-		if (fieldSchema.equals(Schema.INT16_SCHEMA)) {
-			return Short.parseShort(value);
-		}
-		if (fieldSchema.equals(Schema.INT32_SCHEMA)) {
-			return Integer.parseInt(value);
-		}
-		if (fieldSchema.equals(Schema.INT64_SCHEMA)) {
-			return Long.parseLong(value);
+		return dataStruct;
+	}
+
+	/**
+	 * @throws DataException
+	 *             if the literal is not a value of the field's type, so that the
+	 *             table's schema is reloaded as for an unknown column
+	 */
+	private Object convertFieldValue(TableSchema tableSchema, Field field, RedoSQLDecoder.ColumnValues data,
+			int index) {
+		String source = data.getValueSource(index);
+		if (source == null) {
+			return null;
 		}
-		if (fieldSchema.equals(Schema.FLOAT64_SCHEMA)) {
-			return Double.parseDouble(value);
+		try {
+			return tableSchema.getConverter(field.index()).convert(source, data.getValueStart(index),
+					data.getValueEnd(index));
+		} catch (IllegalArgumentException | DateTimeException e) {
+			throw new DataException("Cannot convert " + data.getValue(index) + " for field " + field.name(), e);
 		}
-		if (fieldSchema.equals(org.apache.kafka.connect.data.Timestamp.SCHEMA)) {
-			return Timestamp.valueOf(value);
+	}
+
+	/**
+	 * Decoder and shape cache owned by one decode worker; neither is thread safe
+	 */
+	private static class DecodeState {
+		private final RedoSQLDecoder decoder = new RedoSQLDecoder();
+		private final RedoShapeCache shapeCache;
+
+		DecodeState(RedoShapeCache shapeCache) {
+			this.shapeCache = shapeCache;
 		}
-		return value;
 	}
 }
@@ -26,8 +26,10 @@ import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors;
 
+import org.apache.kafka.common.config.Config;
 import org.apache.kafka.common.config.ConfigDef;
 import org.apache.kafka.common.config.ConfigException;
+import org.apache.kafka.common.config.ConfigValue;
 import org.apache.kafka.connect.connector.Task;
 import org.apache.kafka.connect.errors.ConnectException;
 import org.apache.kafka.connect.source.SourceConnector;
@@ -54,6 +56,10 @@ public class LogMinerSourceConnector extends SourceConnector {
 		try {
 			configProperties = props;
 			config = new LogMinerSourceConnectorConfig(props);
+			Map<String, String> errors = LogMinerSourceConnectorConfig.validateCombinations(config.values());
+			if (!errors.isEmpty()) {
+				throw new ConfigException(String.join("; ", errors.values()));
+			}
 		} catch (ConfigException e) {
 			throw new ConnectException("Cannot start connector, configuration error", e);
 		}
@@ -115,6 +121,25 @@ public class LogMinerSourceConnector extends SourceConnector {
 		return LogMinerSourceConnectorConfig.CONFIG_DEF;
 	}
 
+	@Override
+	public Config validate(Map<String, String> connectorConfigs) {
+		Config config = super.validate(connectorConfigs);
+		Map<String, Object> values = new HashMap<>();
+		for (ConfigValue value : config.configValues()) {
+			if (value.errorMessages().isEmpty()) {
+				values.put(value.name(), value.value());
+			}
+		}
+		Map<String, String> errors = LogMinerSourceConnectorConfig.validateCombinations(values);
+		for (ConfigValue value : config.configValues()) {
+			String error = errors.get(value.name());
+			if (error != null) {
+				value.addErrorMessage(error);
+			}
+		}
+		return config;
+	}
+
 	/**
 	 * Given a list of @see Comparable elements and a target number of groups,
 	 * generates list of groups of elements to match the target number of groups,
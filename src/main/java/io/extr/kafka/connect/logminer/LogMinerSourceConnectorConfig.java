@@ -16,6 +16,7 @@
 
 package io.extr.kafka.connect.logminer;
 
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 import org.apache.kafka.common.config.AbstractConfig;
@@ -49,6 +50,95 @@ public class LogMinerSourceConnectorConfig extends AbstractConfig {
 			+ "when polling for new data. This setting can be used to limit the amount of data buffered "
 			+ "internally in the connector.";
 
+	public static final String DB_FETCH_SIZE_ADAPTIVE_CONFIG = "db.fetch.size.adaptive";
+	private static final String DB_FETCH_SIZE_ADAPTIVE_DISPLAY = "Adaptive database fetch size";
+	public static final boolean DB_FETCH_SIZE_ADAPTIVE_DEFAULT = false;
+	private static final String DB_FETCH_SIZE_ADAPTIVE_DOC = "Tune the mining query fetch size while the session "
+			+ "runs, starting at " + DB_FETCH_SIZE_CONFIG + " and staying within db.fetch.size.min and "
+			+ "db.fetch.size.max, based on observed rows per round-trip, bytes per row and fetch buffer depth. "
+			+ "When disabled, " + DB_FETCH_SIZE_CONFIG + " is used unchanged.";
+
+	public static final String DB_FETCH_SIZE_MIN_CONFIG = "db.fetch.size.min";
+	private static final String DB_FETCH_SIZE_MIN_DISPLAY = "Minimum database fetch size";
+	public static final int DB_FETCH_SIZE_MIN_DEFAULT = 10;
+	private static final String DB_FETCH_SIZE_MIN_DOC = "Lower bound for the adaptive mining query fetch size.";
+
+	public static final String DB_FETCH_SIZE_MAX_CONFIG = "db.fetch.size.max";
+	private static final String DB_FETCH_SIZE_MAX_DISPLAY = "Maximum database fetch size";
+	public static final int DB_FETCH_SIZE_MAX_DEFAULT = 5000;
+	private static final String DB_FETCH_SIZE_MAX_DOC = "Upper bound for the adaptive mining query fetch size.";
+
+	public static final String DB_FETCH_MAX_BYTES_CONFIG = "db.fetch.max.bytes";
+	private static final String DB_FETCH_MAX_BYTES_DISPLAY = "Maximum database fetch bytes";
+	public static final long DB_FETCH_MAX_BYTES_DEFAULT = 8 * 1024 * 1024;
+	private static final String DB_FETCH_MAX_BYTES_DOC = "Approximate upper bound on the bytes a single adaptive "
+			+ "fetch may return, used with the observed row size to cap the fetch size.";
+
+	public static final String MAX_BATCH_SIZE_CONFIG = "max.batch.size";
+	private static final String MAX_BATCH_SIZE_DISPLAY = "Maximum batch size";
+	public static final int MAX_BATCH_SIZE_DEFAULT = 1000;
+	private static final String MAX_BATCH_SIZE_DOC = "Maximum number of events to return to Kafka Connect from a "
+			+ "single task poll.";
+
+	public static final String MAX_BATCH_LATENCY_CONFIG = "max.batch.latency.ms";
+	private static final String MAX_BATCH_LATENCY_DISPLAY = "Maximum batch latency (ms)";
+	public static final long MAX_BATCH_LATENCY_DEFAULT = 1000;
+	private static final String MAX_BATCH_LATENCY_DOC = "Maximum time in ms to spend accumulating events for a "
+			+ "single task poll before returning the batch, even if " + MAX_BATCH_SIZE_CONFIG
+			+ " has not been reached.";
+
+	public static final String FETCH_BUFFER_SIZE_CONFIG = "fetch.buffer.size";
+	private static final String FETCH_BUFFER_SIZE_DISPLAY = "Fetch buffer size";
+	public static final int FETCH_BUFFER_SIZE_DEFAULT = 8192;
+	private static final String FETCH_BUFFER_SIZE_DOC = "Maximum number of mined rows held between the thread "
+			+ "fetching from the database and the task poll, rounded up to a power of two. The fetcher pauses "
+			+ "while the buffer is full.";
+
+	public static final String DECODE_WORKERS_CONFIG = "decode.workers";
+	private static final String DECODE_WORKERS_DISPLAY = "Decode workers";
+	public static final int DECODE_WORKERS_DEFAULT = 1;
+	private static final String DECODE_WORKERS_DOC = "Number of threads parsing redo SQL and building events. "
+			+ "Each poll splits its rows into contiguous chunks decoded in parallel and concatenated in their "
+			+ "original order, so events, and their offsets, are returned in the SCN order LogMiner delivered "
+			+ "them. With 1, rows are decoded on the task thread.";
+
+	public static final String DICTIONARY_PREFETCH_CONFIG = "dictionary.prefetch";
+	private static final String DICTIONARY_PREFETCH_DISPLAY = "Prefetch dictionary";
+	public static final boolean DICTIONARY_PREFETCH_DEFAULT = true;
+	private static final String DICTIONARY_PREFETCH_DOC = "When parsing DML data, describe all of a task's tables "
+			+ "on start with one dictionary query per owner, rather than one query per table as its first row "
+			+ "is mined.";
+
+	public static final String SCHEMA_SNAPSHOT_DIR_CONFIG = "schema.snapshot.dir";
+	private static final String SCHEMA_SNAPSHOT_DIR_DISPLAY = "Schema snapshot directory";
+	public static final String SCHEMA_SNAPSHOT_DIR_DEFAULT = "";
+	private static final String SCHEMA_SNAPSHOT_DIR_DOC = "Local directory in which each task keeps the dictionary "
+			+ "descriptions of its tables, so that on restart only tables whose LAST_DDL_TIME changed are described "
+			+ "again and schema versions carry on from where they were; no snapshot is kept if not set.";
+
+	public static final String REDO_MAX_SIZE_CONFIG = "redo.max.size";
+	private static final String REDO_MAX_SIZE_DISPLAY = "Maximum redo statement size";
+	public static final int REDO_MAX_SIZE_DEFAULT = 4 * 1024 * 1024;
+	private static final String REDO_MAX_SIZE_DOC = "Largest redo SQL statement, in characters, assembled from "
+			+ "LogMiner continuation rows. Larger statements, typically carrying LOB-sized values, are handled "
+			+ "according to redo.oversize.action.";
+
+	public static final String REDO_OVERSIZE_ACTION_CONFIG = "redo.oversize.action";
+	private static final String REDO_OVERSIZE_ACTION_DISPLAY = "Oversize redo action";
+	public static final String REDO_OVERSIZE_ACTION_TRUNCATE = "truncate";
+	public static final String REDO_OVERSIZE_ACTION_DROP = "drop";
+	public static final String REDO_OVERSIZE_ACTION_DEFAULT = REDO_OVERSIZE_ACTION_TRUNCATE;
+	private static final String REDO_OVERSIZE_ACTION_DOC = "What to do with a row whose redo SQL exceeds "
+			+ "redo.max.size. \"truncate\" delivers an event with the statement cut short and empty before and "
+			+ "after rows; \"drop\" skips the row. Both are logged and counted.";
+
+	public static final String REDO_SHAPE_CACHE_SIZE_CONFIG = "redo.shape.cache.size";
+	private static final String REDO_SHAPE_CACHE_SIZE_DISPLAY = "Redo statement shape cache size";
+	public static final int REDO_SHAPE_CACHE_SIZE_DEFAULT = 1024;
+	private static final String REDO_SHAPE_CACHE_SIZE_DOC = "Number of redo statement shapes, each a table, "
+			+ "operation and column list resolved against the table's row schema, kept for reuse by later rows. "
+			+ "The least recently used shape is evicted when the cache is full.";
+
 	public static final String WHITELIST_CONFIG = "table.whitelist";
 	private static final String WHITELIST_DISPLAY = "Table whitelist";
 	public static final String WHITELIST_DEFAULT = "";
@@ -73,6 +163,36 @@ public class LogMinerSourceConnectorConfig extends AbstractConfig {
 	public static final String TOPIC_DEFAULT = "db.events";
 	private static final String TOPIC_DOC = "The name of the Kafka topic to publish data to.";
 
+	public static final String WATERMARK_TOPIC_CONFIG = "watermark.topic";
+	private static final String WATERMARK_TOPIC_DISPLAY = "Watermark topic";
+	private static final String WATERMARK_TOPIC_DOC = "Kafka topic receiving each task's resume watermark, the "
+			+ "SCN below which every change to its tables has been delivered. The watermark is stored in its own "
+			+ "offset partition and a restarted task with the same tables resumes mining from it, rather than "
+			+ "from the oldest table offset. Requires mining.committed.only=false, as only then does the connector "
+			+ "know the start of every transaction still open. Not set by default, in which case mining resumes "
+			+ "from the oldest table offset.";
+
+	public static final String WATERMARK_INTERVAL_CONFIG = "watermark.interval.ms";
+	private static final String WATERMARK_INTERVAL_DISPLAY = "Watermark interval (ms)";
+	public static final long WATERMARK_INTERVAL_DEFAULT = 1000L;
+	private static final String WATERMARK_INTERVAL_DOC = "Minimum time in ms between two watermark records of "
+			+ "a task, when watermark.topic is set.";
+
+	public static final String HEARTBEAT_INTERVAL_CONFIG = "heartbeat.interval.ms";
+	private static final String HEARTBEAT_INTERVAL_DISPLAY = "Heartbeat interval (ms)";
+	public static final long HEARTBEAT_INTERVAL_DEFAULT = 0L;
+	private static final String HEARTBEAT_INTERVAL_DOC = "Frequency in ms at which each table without changes "
+			+ "since the previous heartbeat has its offset moved up to the current mining position by a "
+			+ "heartbeat record. No records are sent while the mining position does not move. Requires "
+			+ "mining.committed.only=false, as only then is the mining position known to be at or before the "
+			+ "start of every open transaction. 0 disables heartbeats.";
+
+	public static final String HEARTBEAT_TOPIC_CONFIG = "heartbeat.topic";
+	private static final String HEARTBEAT_TOPIC_DISPLAY = "Heartbeat topic";
+	public static final String HEARTBEAT_TOPIC_DEFAULT = "db.heartbeat";
+	private static final String HEARTBEAT_TOPIC_DOC = "The name of the Kafka topic to publish heartbeat records "
+			+ "to, keyed by table.";
+
 	public static final String TOPIC_PREFIX_CONFIG = "topic.prefix";
 	private static final String TOPIC_PREFIX_DISPLAY = "Topic prefix";
 	private static final String TOPIC_PREFIX_DOC = "Prefix to prepend to table names to generate the "
@@ -81,7 +201,10 @@ public class LogMinerSourceConnectorConfig extends AbstractConfig {
 	public static final String PARSE_DML_DATA_CONFIG = "parse.dml.data";
 	private static final String PARSE_DML_DATA_DISPLAY = "Parse DML data";
 	public static final boolean PARSE_DML_DATA_DEFAULT = false;
-	private static final String PARSE_DML_DATA_DOC = "Parse DML data into structures";
+	private static final String PARSE_DML_DATA_DOC = "Parse DML data into before and after row structures "
+			+ "typed from the data dictionary. When false, events carry the raw redo SQL with its SCNs, owner, "
+			+ "table, operation and timestamp in a fixed schema, and neither the dictionary nor the redo SQL "
+			+ "is consulted.";
 
 	public static final String SEEK_SCN_CONFIG = "scn";
 	private static final String SEEK_SCN_DISPLAY = "System change number (SCN)";
@@ -96,6 +219,85 @@ public class LogMinerSourceConnectorConfig extends AbstractConfig {
 			+ "that is less than the earliest available; \"max\" if a specific SCN is selected "
 			+ "that is greater than the latest available.  In all cases the connector will log its choices.";
 
+	public static final String MINING_MODE_CONFIG = "mining.mode";
+	private static final String MINING_MODE_DISPLAY = "Mining mode";
+	public static final String MINING_MODE_CONTINUOUS = "continuous";
+	public static final String MINING_MODE_WINDOWED = "windowed";
+	public static final String MINING_MODE_DEFAULT = MINING_MODE_CONTINUOUS;
+	private static final String MINING_MODE_DOC = "How redo is mined. \"continuous\" runs a single "
+			+ "CONTINUOUS_MINE LogMiner session (not available from Oracle 19c). \"windowed\" registers the "
+			+ "online and archived logs covering successive bounded SCN windows with ADD_LOGFILE and mines each "
+			+ "window with its own STARTSCN/ENDSCN session. Windowed mining requires mining.committed.only=false: "
+			+ "a COMMITTED_DATA_ONLY session per window would drop the changes a transaction made before the "
+			+ "window in which it commits.";
+
+	public static final String MINING_WINDOW_MIN_CONFIG = "mining.window.min.scns";
+	private static final String MINING_WINDOW_MIN_DISPLAY = "Minimum mining window (SCNs)";
+	public static final long MINING_WINDOW_MIN_DEFAULT = 1000L;
+	private static final String MINING_WINDOW_MIN_DOC = "Smallest number of SCNs mined in a single window "
+			+ "in windowed mining mode.";
+
+	public static final String MINING_WINDOW_MAX_CONFIG = "mining.window.max.scns";
+	private static final String MINING_WINDOW_MAX_DISPLAY = "Maximum mining window (SCNs)";
+	public static final long MINING_WINDOW_MAX_DEFAULT = 1000000L;
+	private static final String MINING_WINDOW_MAX_DOC = "Largest number of SCNs mined in a single window "
+			+ "in windowed mining mode, bounding the redo LogMiner scans for one query.";
+
+	public static final String MINING_WINDOW_TARGET_CONFIG = "mining.window.target.ms";
+	private static final String MINING_WINDOW_TARGET_DISPLAY = "Mining window target time (ms)";
+	public static final long MINING_WINDOW_TARGET_DEFAULT = 5000L;
+	private static final String MINING_WINDOW_TARGET_DOC = "Time in ms a single window should take to mine; "
+			+ "window sizes are adjusted towards this at the observed redo rate.";
+
+	public static final String MINING_WINDOW_POLL_INTERVAL_CONFIG = "mining.window.poll.interval.ms";
+	private static final String MINING_WINDOW_POLL_INTERVAL_DISPLAY = "Mining window poll interval (ms)";
+	public static final long MINING_WINDOW_POLL_INTERVAL_DEFAULT = 1000L;
+	private static final String MINING_WINDOW_POLL_INTERVAL_DOC = "Time in ms to wait for new redo once "
+			+ "windowed mining has caught up with the database current SCN.";
+
+	public static final String MINING_FILTER_MODE_CONFIG = "mining.filter.mode";
+	private static final String MINING_FILTER_MODE_DISPLAY = "Mining filter mode";
+	public static final String MINING_FILTER_MODE_TABLES = "tables";
+	public static final String MINING_FILTER_MODE_OBJECTS = "objects";
+	public static final String MINING_FILTER_MODE_OWNERS = "owners";
+	public static final String MINING_FILTER_MODE_DEFAULT = MINING_FILTER_MODE_TABLES;
+	private static final String MINING_FILTER_MODE_DOC = "How the mining query selects the task's tables. "
+			+ "\"tables\" matches each table by name with its own COMMIT_SCN condition. \"objects\" matches the "
+			+ "object ids of the tables and their partitions, and \"owners\" matches whole owners; both bound the "
+			+ "query by the lowest table offset and apply each table's offset as rows are fetched, keeping the "
+			+ "query small for large table lists. Object ids are resolved when the task starts, so in \"objects\" "
+			+ "mode partitions added, and tables truncated or moved, after that are not mined until the task "
+			+ "restarts.";
+
+	public static final String MINING_COMMITTED_ONLY_CONFIG = "mining.committed.only";
+	private static final String MINING_COMMITTED_ONLY_DISPLAY = "Mine committed data only";
+	public static final boolean MINING_COMMITTED_ONLY_DEFAULT = true;
+	private static final String MINING_COMMITTED_ONLY_DOC = "Whether LogMiner returns only committed changes "
+			+ "(COMMITTED_DATA_ONLY), holding open transactions in the database session. When false, uncommitted "
+			+ "changes are mined and the connector buffers them by transaction itself, delivering them on commit "
+			+ "and discarding them on rollback, and offsets record where mining must restart so that transactions "
+			+ "open at the time are mined again from their start.";
+
+	public static final String TRANSACTION_BUFFER_MAX_BYTES_CONFIG = "transaction.buffer.max.bytes";
+	private static final String TRANSACTION_BUFFER_MAX_BYTES_DISPLAY = "Maximum transaction buffer size (bytes)";
+	public static final long TRANSACTION_BUFFER_MAX_BYTES_DEFAULT = 256L * 1024L * 1024L;
+	private static final String TRANSACTION_BUFFER_MAX_BYTES_DOC = "Estimated heap the changes of open "
+			+ "transactions not spilled to disk may occupy when mining uncommitted data; the task fails when it is "
+			+ "exceeded.";
+
+	public static final String TRANSACTION_SPILL_THRESHOLD_BYTES_CONFIG = "transaction.spill.threshold.bytes";
+	private static final String TRANSACTION_SPILL_THRESHOLD_BYTES_DISPLAY = "Transaction spill threshold (bytes)";
+	public static final long TRANSACTION_SPILL_THRESHOLD_BYTES_DEFAULT = 16L * 1024L * 1024L;
+	private static final String TRANSACTION_SPILL_THRESHOLD_BYTES_DOC = "Estimated heap the changes of a single "
+			+ "open transaction may occupy before they are spilled to memory-mapped files in the spill directory "
+			+ "when mining uncommitted data.";
+
+	public static final String TRANSACTION_SPILL_DIR_CONFIG = "transaction.spill.dir";
+	private static final String TRANSACTION_SPILL_DIR_DISPLAY = "Transaction spill directory";
+	public static final String TRANSACTION_SPILL_DIR_DEFAULT = "";
+	private static final String TRANSACTION_SPILL_DIR_DOC = "Local directory for the spill files of large open "
+			+ "transactions; the JVM temporary directory if not set.";
+
 	public static final ConfigDef CONFIG_DEF = baseConfigDef();
 
 	public static ConfigDef baseConfigDef() {
@@ -124,23 +326,153 @@ public class LogMinerSourceConnectorConfig extends AbstractConfig {
 				orderInGroup++, Width.SHORT, TOPIC_DISPLAY)
 				.define(TOPIC_PREFIX_CONFIG, Type.STRING, Importance.HIGH, TOPIC_PREFIX_DOC, CONNECTOR_GROUP,
 						orderInGroup++, Width.MEDIUM, TOPIC_PREFIX_DISPLAY)
+				.define(WATERMARK_TOPIC_CONFIG, Type.STRING, null, Importance.MEDIUM, WATERMARK_TOPIC_DOC,
+						CONNECTOR_GROUP, orderInGroup++, Width.MEDIUM, WATERMARK_TOPIC_DISPLAY)
+				.define(HEARTBEAT_INTERVAL_CONFIG, Type.LONG, HEARTBEAT_INTERVAL_DEFAULT, ConfigDef.Range.atLeast(0),
+						Importance.LOW, HEARTBEAT_INTERVAL_DOC, CONNECTOR_GROUP, orderInGroup++, Width.SHORT,
+						HEARTBEAT_INTERVAL_DISPLAY)
+				.define(HEARTBEAT_TOPIC_CONFIG, Type.STRING, HEARTBEAT_TOPIC_DEFAULT, Importance.LOW,
+						HEARTBEAT_TOPIC_DOC, CONNECTOR_GROUP, orderInGroup++, Width.MEDIUM, HEARTBEAT_TOPIC_DISPLAY)
+				.define(WATERMARK_INTERVAL_CONFIG, Type.LONG, WATERMARK_INTERVAL_DEFAULT, ConfigDef.Range.atLeast(0),
+						Importance.LOW, WATERMARK_INTERVAL_DOC, CONNECTOR_GROUP, orderInGroup++, Width.SHORT,
+						WATERMARK_INTERVAL_DISPLAY)
 				.define(PARSE_DML_DATA_CONFIG, Type.BOOLEAN, Importance.MEDIUM, PARSE_DML_DATA_DOC, CONNECTOR_GROUP,
 						orderInGroup++, Width.SHORT, PARSE_DML_DATA_DISPLAY)
 				.define(DB_FETCH_SIZE_CONFIG, Type.INT, Importance.HIGH, DB_FETCH_SIZE_DOC, DATABASE_GROUP,
 						orderInGroup++, Width.SHORT, DB_FETCH_SIZE_DISPLAY)
+				.define(DB_FETCH_SIZE_ADAPTIVE_CONFIG, Type.BOOLEAN, DB_FETCH_SIZE_ADAPTIVE_DEFAULT, Importance.LOW,
+						DB_FETCH_SIZE_ADAPTIVE_DOC, DATABASE_GROUP, orderInGroup++, Width.SHORT,
+						DB_FETCH_SIZE_ADAPTIVE_DISPLAY)
+				.define(DB_FETCH_SIZE_MIN_CONFIG, Type.INT, DB_FETCH_SIZE_MIN_DEFAULT, ConfigDef.Range.atLeast(1),
+						Importance.LOW, DB_FETCH_SIZE_MIN_DOC, DATABASE_GROUP, orderInGroup++, Width.SHORT,
+						DB_FETCH_SIZE_MIN_DISPLAY)
+				.define(DB_FETCH_SIZE_MAX_CONFIG, Type.INT, DB_FETCH_SIZE_MAX_DEFAULT, ConfigDef.Range.atLeast(1),
+						Importance.LOW, DB_FETCH_SIZE_MAX_DOC, DATABASE_GROUP, orderInGroup++, Width.SHORT,
+						DB_FETCH_SIZE_MAX_DISPLAY)
+				.define(DB_FETCH_MAX_BYTES_CONFIG, Type.LONG, DB_FETCH_MAX_BYTES_DEFAULT, ConfigDef.Range.atLeast(1),
+						Importance.LOW, DB_FETCH_MAX_BYTES_DOC, DATABASE_GROUP, orderInGroup++, Width.SHORT,
+						DB_FETCH_MAX_BYTES_DISPLAY)
 				.define(WHITELIST_CONFIG, Type.LIST, Importance.MEDIUM, WHITELIST_DOC, DATABASE_GROUP, orderInGroup++,
 						Width.LONG, WHITELIST_DISPLAY)
 				.define(BLACKLIST_CONFIG, Type.LIST, Importance.MEDIUM, BLACKLIST_DOC, DATABASE_GROUP, orderInGroup++,
 						Width.LONG, BLACKLIST_DISPLAY)
 				.define(TABLE_POLL_INTERVAL_CONFIG, Type.LONG, TABLE_POLL_INTERVAL_DEFAULT, Importance.MEDIUM,
 						TABLE_POLL_INTERVAL_DOC, CONNECTOR_GROUP, orderInGroup++, Width.SHORT,
-						TABLE_POLL_INTERVAL_DISPLAY);
+						TABLE_POLL_INTERVAL_DISPLAY)
+				.define(MAX_BATCH_SIZE_CONFIG, Type.INT, MAX_BATCH_SIZE_DEFAULT, ConfigDef.Range.atLeast(1),
+						Importance.MEDIUM, MAX_BATCH_SIZE_DOC, CONNECTOR_GROUP, orderInGroup++, Width.SHORT,
+						MAX_BATCH_SIZE_DISPLAY)
+				.define(MAX_BATCH_LATENCY_CONFIG, Type.LONG, MAX_BATCH_LATENCY_DEFAULT, ConfigDef.Range.atLeast(1),
+						Importance.MEDIUM, MAX_BATCH_LATENCY_DOC, CONNECTOR_GROUP, orderInGroup++, Width.SHORT,
+						MAX_BATCH_LATENCY_DISPLAY)
+				.define(FETCH_BUFFER_SIZE_CONFIG, Type.INT, FETCH_BUFFER_SIZE_DEFAULT, ConfigDef.Range.atLeast(1),
+						Importance.LOW, FETCH_BUFFER_SIZE_DOC, CONNECTOR_GROUP, orderInGroup++, Width.SHORT,
+						FETCH_BUFFER_SIZE_DISPLAY)
+				.define(DECODE_WORKERS_CONFIG, Type.INT, DECODE_WORKERS_DEFAULT, ConfigDef.Range.atLeast(1),
+						Importance.LOW, DECODE_WORKERS_DOC, CONNECTOR_GROUP, orderInGroup++, Width.SHORT,
+						DECODE_WORKERS_DISPLAY)
+				.define(DICTIONARY_PREFETCH_CONFIG, Type.BOOLEAN, DICTIONARY_PREFETCH_DEFAULT, Importance.LOW,
+						DICTIONARY_PREFETCH_DOC, CONNECTOR_GROUP, orderInGroup++, Width.SHORT,
+						DICTIONARY_PREFETCH_DISPLAY)
+				.define(SCHEMA_SNAPSHOT_DIR_CONFIG, Type.STRING, SCHEMA_SNAPSHOT_DIR_DEFAULT, Importance.LOW,
+						SCHEMA_SNAPSHOT_DIR_DOC, CONNECTOR_GROUP, orderInGroup++, Width.LONG,
+						SCHEMA_SNAPSHOT_DIR_DISPLAY)
+				.define(REDO_MAX_SIZE_CONFIG, Type.INT, REDO_MAX_SIZE_DEFAULT, ConfigDef.Range.atLeast(1),
+						Importance.LOW, REDO_MAX_SIZE_DOC, CONNECTOR_GROUP, orderInGroup++, Width.SHORT,
+						REDO_MAX_SIZE_DISPLAY)
+				.define(REDO_OVERSIZE_ACTION_CONFIG, Type.STRING, REDO_OVERSIZE_ACTION_DEFAULT,
+						ConfigDef.ValidString.in(REDO_OVERSIZE_ACTION_TRUNCATE, REDO_OVERSIZE_ACTION_DROP),
+						Importance.LOW, REDO_OVERSIZE_ACTION_DOC, CONNECTOR_GROUP, orderInGroup++, Width.SHORT,
+						REDO_OVERSIZE_ACTION_DISPLAY)
+				.define(REDO_SHAPE_CACHE_SIZE_CONFIG, Type.INT, REDO_SHAPE_CACHE_SIZE_DEFAULT,
+						ConfigDef.Range.atLeast(1), Importance.LOW, REDO_SHAPE_CACHE_SIZE_DOC, CONNECTOR_GROUP,
+						orderInGroup++, Width.SHORT, REDO_SHAPE_CACHE_SIZE_DISPLAY);
 	}
 
 	private static void initLogMinerConfigGroup(ConfigDef cfg) {
 		int orderInGroup = 0;
 		cfg.define(SEEK_SCN_CONFIG, Type.STRING, Importance.LOW, SEEK_SCN_DOC, LOGMINER_GROUP, orderInGroup++,
-				Width.SHORT, SEEK_SCN_DISPLAY);
+				Width.SHORT, SEEK_SCN_DISPLAY)
+				.define(MINING_MODE_CONFIG, Type.STRING, MINING_MODE_DEFAULT,
+						ConfigDef.ValidString.in(MINING_MODE_CONTINUOUS, MINING_MODE_WINDOWED), Importance.MEDIUM, MINING_MODE_DOC,
+						LOGMINER_GROUP, orderInGroup++, Width.SHORT, MINING_MODE_DISPLAY)
+				.define(MINING_WINDOW_MIN_CONFIG, Type.LONG, MINING_WINDOW_MIN_DEFAULT, ConfigDef.Range.atLeast(1),
+						Importance.LOW, MINING_WINDOW_MIN_DOC, LOGMINER_GROUP, orderInGroup++, Width.SHORT,
+						MINING_WINDOW_MIN_DISPLAY)
+				.define(MINING_WINDOW_MAX_CONFIG, Type.LONG, MINING_WINDOW_MAX_DEFAULT, ConfigDef.Range.atLeast(1),
+						Importance.LOW, MINING_WINDOW_MAX_DOC, LOGMINER_GROUP, orderInGroup++, Width.SHORT,
+						MINING_WINDOW_MAX_DISPLAY)
+				.define(MINING_WINDOW_TARGET_CONFIG, Type.LONG, MINING_WINDOW_TARGET_DEFAULT,
+						ConfigDef.Range.atLeast(1), Importance.LOW, MINING_WINDOW_TARGET_DOC, LOGMINER_GROUP,
+						orderInGroup++, Width.SHORT, MINING_WINDOW_TARGET_DISPLAY)
+				.define(MINING_WINDOW_POLL_INTERVAL_CONFIG, Type.LONG, MINING_WINDOW_POLL_INTERVAL_DEFAULT,
+						ConfigDef.Range.atLeast(1), Importance.LOW, MINING_WINDOW_POLL_INTERVAL_DOC, LOGMINER_GROUP,
+						orderInGroup++, Width.SHORT, MINING_WINDOW_POLL_INTERVAL_DISPLAY)
+				.define(MINING_FILTER_MODE_CONFIG, Type.STRING, MINING_FILTER_MODE_DEFAULT,
+						ConfigDef.ValidString.in(MINING_FILTER_MODE_TABLES, MINING_FILTER_MODE_OBJECTS,
+								MINING_FILTER_MODE_OWNERS),
+						Importance.MEDIUM, MINING_FILTER_MODE_DOC, LOGMINER_GROUP, orderInGroup++, Width.SHORT,
+						MINING_FILTER_MODE_DISPLAY)
+				.define(MINING_COMMITTED_ONLY_CONFIG, Type.BOOLEAN, MINING_COMMITTED_ONLY_DEFAULT, Importance.MEDIUM,
+						MINING_COMMITTED_ONLY_DOC, LOGMINER_GROUP, orderInGroup++, Width.SHORT,
+						MINING_COMMITTED_ONLY_DISPLAY)
+				.define(TRANSACTION_BUFFER_MAX_BYTES_CONFIG, Type.LONG, TRANSACTION_BUFFER_MAX_BYTES_DEFAULT,
+						ConfigDef.Range.atLeast(1), Importance.LOW, TRANSACTION_BUFFER_MAX_BYTES_DOC, LOGMINER_GROUP,
+						orderInGroup++, Width.SHORT, TRANSACTION_BUFFER_MAX_BYTES_DISPLAY)
+				.define(TRANSACTION_SPILL_THRESHOLD_BYTES_CONFIG, Type.LONG, TRANSACTION_SPILL_THRESHOLD_BYTES_DEFAULT,
+						ConfigDef.Range.atLeast(1), Importance.LOW, TRANSACTION_SPILL_THRESHOLD_BYTES_DOC,
+						LOGMINER_GROUP, orderInGroup++, Width.SHORT, TRANSACTION_SPILL_THRESHOLD_BYTES_DISPLAY)
+				.define(TRANSACTION_SPILL_DIR_CONFIG, Type.STRING, TRANSACTION_SPILL_DIR_DEFAULT, Importance.LOW,
+						TRANSACTION_SPILL_DIR_DOC, LOGMINER_GROUP, orderInGroup++, Width.LONG,
+						TRANSACTION_SPILL_DIR_DISPLAY);
+	}
+
+	/**
+	 * Check the settings that are only invalid in combination, which ConfigDef
+	 * cannot express
+	 * 
+	 * @param values
+	 *            parsed settings by name; settings that failed to parse may be
+	 *            absent or null
+	 * @return error messages by the name of the setting each is reported against
+	 */
+	public static Map<String, String> validateCombinations(Map<String, ?> values) {
+		Map<String, String> errors = new LinkedHashMap<>();
+		Object fetchSizeMin = values.get(DB_FETCH_SIZE_MIN_CONFIG);
+		Object fetchSizeMax = values.get(DB_FETCH_SIZE_MAX_CONFIG);
+		if (fetchSizeMin != null && fetchSizeMax != null && (Integer) fetchSizeMin > (Integer) fetchSizeMax) {
+			errors.put(DB_FETCH_SIZE_MAX_CONFIG,
+					DB_FETCH_SIZE_MAX_CONFIG + " must not be less than " + DB_FETCH_SIZE_MIN_CONFIG);
+		}
+		Object windowMin = values.get(MINING_WINDOW_MIN_CONFIG);
+		Object windowMax = values.get(MINING_WINDOW_MAX_CONFIG);
+		if (windowMin != null && windowMax != null && (Long) windowMin > (Long) windowMax) {
+			errors.put(MINING_WINDOW_MAX_CONFIG,
+					MINING_WINDOW_MAX_CONFIG + " must not be less than " + MINING_WINDOW_MIN_CONFIG);
+		}
+		Object spillThreshold = values.get(TRANSACTION_SPILL_THRESHOLD_BYTES_CONFIG);
+		Object bufferMax = values.get(TRANSACTION_BUFFER_MAX_BYTES_CONFIG);
+		if (spillThreshold != null && bufferMax != null && (Long) spillThreshold > (Long) bufferMax) {
+			errors.put(TRANSACTION_SPILL_THRESHOLD_BYTES_CONFIG, TRANSACTION_SPILL_THRESHOLD_BYTES_CONFIG
+					+ " must not be greater than " + TRANSACTION_BUFFER_MAX_BYTES_CONFIG);
+		}
+		if (MINING_MODE_WINDOWED.equals(values.get(MINING_MODE_CONFIG))
+				&& Boolean.TRUE.equals(values.get(MINING_COMMITTED_ONLY_CONFIG))) {
+			errors.put(MINING_MODE_CONFIG, MINING_MODE_CONFIG + "=" + MINING_MODE_WINDOWED + " requires "
+					+ MINING_COMMITTED_ONLY_CONFIG + "=false");
+		}
+		if (values.get(WATERMARK_TOPIC_CONFIG) != null
+				&& Boolean.TRUE.equals(values.get(MINING_COMMITTED_ONLY_CONFIG))) {
+			errors.put(WATERMARK_TOPIC_CONFIG, WATERMARK_TOPIC_CONFIG + " requires " + MINING_COMMITTED_ONLY_CONFIG
+					+ "=false");
+		}
+		Object heartbeatInterval = values.get(HEARTBEAT_INTERVAL_CONFIG);
+		if (heartbeatInterval != null && (Long) heartbeatInterval > 0
+				&& Boolean.TRUE.equals(values.get(MINING_COMMITTED_ONLY_CONFIG))) {
+			errors.put(HEARTBEAT_INTERVAL_CONFIG, HEARTBEAT_INTERVAL_CONFIG + " requires "
+					+ MINING_COMMITTED_ONLY_CONFIG + "=false");
+		}
+		return errors;
 	}
 
 	public LogMinerSourceConnectorConfig(Map<String, ?> props) {
@@ -17,6 +17,7 @@
 package io.extr.kafka.connect.logminer;
 
 import org.apache.kafka.connect.data.Schema;
+import org.apache.kafka.connect.data.SchemaBuilder;
 
 public class LogMinerSourceConnectorConstants {
 	public static final String FIELD_SCN = "SCN";
@@ -42,11 +43,14 @@ public class LogMinerSourceConnectorConstants {
 	public static final String FIELD_RBABLK = "RSABLK";
 	public static final String FIELD_SQL_REDO = "SQL_REDO";
 	public static final String FIELD_RS_ID = "RS_ID";
+	public static final String FIELD_SSN = "SSN";
 	public static final String FIELD_CSF = "CSF";
 	public static final String FIELD_INFO = "INFO";
 	public static final String FIELD_STATUS = "STATUS";
 	public static final String FIELD_SRC_CON_ID = "SRC_CON_ID";
 	public static final String FIELD_SRC_CON_NAME = "SRC_CON_NAME";
+	public static final String FIELD_DATA_OBJ = "DATA_OBJ#";
+	public static final String FIELD_XID = "XID";
 	public static final String FIELD_DBID = "DBID";
 	public static final String FIELD_NAME = "NAME";
 	
@@ -72,6 +76,9 @@ public class LogMinerSourceConnectorConstants {
 	public static final String DML_ROW_SCHEMA_NAME = "DML_ROW";
 	public static final String ROW_SCHEMA_QUALIFIER = ".ROW";
 	public static final String EVENT_SCHEMA_QUALIFIER = ".EVENT";
+	public static final String RAW_EVENT_SCHEMA_NAME = "RAW_EVENT";
+	public static final String WATERMARK_SCHEMA_NAME = "WATERMARK";
+	public static final String HEARTBEAT_SCHEMA_NAME = "HEARTBEAT";
 	
 	public static final String FIELD_AFTER_DATA_ROW = "AFTER";
 	public static final String FIELD_BEFORE_DATA_ROW = "BEFORE";
@@ -83,10 +90,39 @@ public class LogMinerSourceConnectorConstants {
 	public static final String OPERATION_INSERT = "INSERT";
 	public static final String OPERATION_UPDATE = "UPDATE";
 	public static final String OPERATION_DELETE = "DELETE";
+
+	public static final int OPERATION_CODE_START = 6;
+	public static final int OPERATION_CODE_COMMIT = 7;
+	public static final int OPERATION_CODE_ROLLBACK = 36;
 	
 	public static final String TABLE_NAME_KEY = "Table";
+	public static final String WATERMARK_KEY = "Watermark";
+
+	public static final String DEFAULT_CONNECTOR_NAME = "logminer";
 	
     public static final Schema SCEMA_OPTIONAL_TIMESTAMP = org.apache.kafka.connect.data.Timestamp.builder().optional().build();
     public static final Schema SCHEMA_TIMESTAMP = org.apache.kafka.connect.data.Timestamp.builder().build();
 
+	/**
+	 * Fixed schema shared by every event when DML data is not parsed
+	 */
+	public static final Schema RAW_EVENT_SCHEMA = SchemaBuilder.struct().name(RAW_EVENT_SCHEMA_NAME)
+			.field(FIELD_SCN, Schema.INT64_SCHEMA).field(FIELD_COMMIT_SCN, Schema.INT64_SCHEMA)
+			.field(FIELD_ROW_ID, Schema.STRING_SCHEMA).field(FIELD_SEG_OWNER, Schema.STRING_SCHEMA)
+			.field(FIELD_TABLE_NAME, Schema.STRING_SCHEMA).field(FIELD_TIMESTAMP, SCHEMA_TIMESTAMP)
+			.field(FIELD_SQL_REDO, Schema.STRING_SCHEMA).field(FIELD_OPERATION, Schema.STRING_SCHEMA).build();
+
+	/**
+	 * Value schema of the records carrying a task's resume watermark
+	 */
+	public static final Schema WATERMARK_SCHEMA = SchemaBuilder.struct().name(WATERMARK_SCHEMA_NAME)
+			.field(FIELD_SCN, Schema.INT64_SCHEMA).field(FIELD_TIMESTAMP, SCHEMA_TIMESTAMP).build();
+
+	/**
+	 * Value schema of the records advancing the offset of a table without changes
+	 */
+	public static final Schema HEARTBEAT_SCHEMA = SchemaBuilder.struct().name(HEARTBEAT_SCHEMA_NAME)
+			.field(FIELD_SCN, Schema.INT64_SCHEMA).field(FIELD_COMMIT_SCN, Schema.INT64_SCHEMA)
+			.field(FIELD_TIMESTAMP, SCHEMA_TIMESTAMP).build();
+
 }
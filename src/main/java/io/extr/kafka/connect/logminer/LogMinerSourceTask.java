@@ -16,17 +16,26 @@
 
 package io.extr.kafka.connect.logminer;
 
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.Date;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
 import java.util.concurrent.atomic.AtomicBoolean;
-import java.util.stream.Collectors;
 
+import org.apache.kafka.connect.data.Schema;
+import org.apache.kafka.connect.data.Struct;
 import org.apache.kafka.connect.errors.ConnectException;
 import org.apache.kafka.connect.source.SourceRecord;
 import org.apache.kafka.connect.source.SourceTask;
+import org.apache.kafka.connect.storage.OffsetStorageReader;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -45,7 +54,23 @@ public class LogMinerSourceTask extends SourceTask {
 
 	private LogMinerSourceTaskConfig config;
 	private LogMinerSession session;
+	private String watermarkTopic;
+	private String watermarkId;
+	private Map<String, String> watermarkPartition;
+	private long watermarkInterval;
+	private long lastWatermarkMillis;
+	private List<Table> tables;
+	private String heartbeatTopic;
+	private long heartbeatInterval;
+	private long lastHeartbeatMillis;
+	/* Offset of the last event returned, and of the last heartbeat */
+	private Map<String, Object> progressOffset;
+	private Map<String, Object> heartbeatOffset;
+	/* Tables with events since the last heartbeat */
+	private final Set<Table> changedTables = new HashSet<>();
 	private final AtomicBoolean running = new AtomicBoolean(false);
+	/* Held by poll, so that stop closes the session between polls */
+	private final Object pollLock = new Object();
 
 	public LogMinerSourceTask() {
 	}
@@ -63,58 +88,252 @@ public class LogMinerSourceTask extends SourceTask {
 		try {
 			session = new LogMinerSession(config);
 
-			List<String> tables = config.getList(LogMinerSourceTaskConfig.TABLES_CONFIG);
-			LOGGER.debug("Configured task tables: {}", tables);
-			List<Map<String, String>> partitions = new ArrayList<>(tables.size());
-			for (String table : tables) {
+			List<String> tableNames = config.getList(LogMinerSourceTaskConfig.TABLES_CONFIG);
+			LOGGER.debug("Configured task tables: {}", tableNames);
+			tables = new ArrayList<>(tableNames.size());
+			List<Map<String, String>> partitions = new ArrayList<>(tableNames.size());
+			for (String table : tableNames) {
 				Map<String, String> tablePartition = Collections
 						.singletonMap(LogMinerSourceConnectorConstants.TABLE_NAME_KEY, table);
 				partitions.add(tablePartition);
+				tables.add(Table.fromQName(table));
+			}
+			heartbeatTopic = config.getString(LogMinerSourceTaskConfig.HEARTBEAT_TOPIC_CONFIG);
+			heartbeatInterval = config.getLong(LogMinerSourceTaskConfig.HEARTBEAT_INTERVAL_CONFIG);
+			lastHeartbeatMillis = System.currentTimeMillis();
+			watermarkTopic = config.getString(LogMinerSourceTaskConfig.WATERMARK_TOPIC_CONFIG);
+			watermarkInterval = config.getLong(LogMinerSourceTaskConfig.WATERMARK_INTERVAL_CONFIG);
+			watermarkId = getWatermarkId(tableNames);
+			watermarkPartition = Collections.singletonMap(LogMinerSourceConnectorConstants.WATERMARK_KEY,
+					watermarkId);
+			/* A watermark left by an earlier configuration is not kept up to date, so is not resumed from */
+			if (watermarkTopic != null) {
+				partitions.add(watermarkPartition);
 			}
-
-			LOGGER.trace("Requesting offsets for partitions: {}", partitions);
-			Map<Map<String, String>, Map<String, Object>> offsets = context.offsetStorageReader().offsets(partitions);
-			LOGGER.trace("Returned offsets: {}", offsets);
 
 			Map<Table, Offset> state = new HashMap<>();
-			if (offsets != null) {
-				for (Map<String, String> partition : offsets.keySet()) {
-					LOGGER.debug("Setting offset for returned partition {}", partition);
-					Table t = Table.fromQName(partition.get(LogMinerSourceConnectorConstants.TABLE_NAME_KEY));
-					Offset o = Offset.fromMap(offsets.get(partition));
-					state.put(t, o);
-				}
-			}
-			session.start(state);
+			Long resumeSCN = readOffsets(context.offsetStorageReader(), partitions, state);
+			session.start(state, resumeSCN);
 			running.set(true);
 			LOGGER.info("Started LogMinerSourceTask");
 		} catch (Exception e) {
+			if (session != null) {
+				session.close();
+			}
 			throw new ConnectException("Cannot start LogMinerSourceTask instance", e);
 		}
 	}
 
 	@Override
 	public List<SourceRecord> poll() throws InterruptedException {
+		synchronized (pollLock) {
+			if (!running.get()) {
+				return null;
+			}
+			return pollEvents();
+		}
+	}
+
+	private List<SourceRecord> pollEvents() {
 		LOGGER.debug("Polling for new events");
 		try {
 			List<LogMinerEvent> events = session.poll();
-			if (events == null)
+			int eventCount = events == null ? 0 : events.size();
+			if (eventCount > 0) {
+				progressOffset = events.get(eventCount - 1).getOffset();
+			}
+			long now = System.currentTimeMillis();
+			boolean heartbeatDue = heartbeatInterval > 0 && now - lastHeartbeatMillis >= heartbeatInterval;
+			List<Table> idleTables = heartbeatDue ? getIdleTables(events, now) : Collections.emptyList();
+			if (eventCount == 0 && idleTables.isEmpty())
 				return null;
 
 			// TODO: either consider implementing topic prefix of some sort, or remove
 			// config option in favour of one topic partitioned by table
-			return events.stream()
-					.map(e -> new SourceRecord(e.getPartition(), e.getOffset(),
-							config.getString(LogMinerSourceTaskConfig.TOPIC_CONFIG), e.getSchema(), e.getStruct()))
-					.collect(Collectors.toList());
+			String topic = config.getString(LogMinerSourceTaskConfig.TOPIC_CONFIG);
+			/*
+			 * Event offsets hold the SCN mining restarts from, which is at or before the
+			 * start of every open transaction only when the connector buffers them, so
+			 * the configuration allows watermarks only when mining uncommitted data
+			 */
+			long batchSCN = idleTables.isEmpty() ? events.get(eventCount - 1).getOffsetSystemChangeNumber()
+					: getLong(heartbeatOffset, LogMinerSourceConnectorConstants.FIELD_SCN);
+			boolean emitWatermark = watermarkTopic != null && now - lastWatermarkMillis >= watermarkInterval;
+			int size = eventCount + idleTables.size() + (emitWatermark ? 1 : 0);
+
+			SourceRecord[] records = new SourceRecord[size];
+			boolean trackChanges = heartbeatInterval > 0 && !heartbeatDue;
+			for (int i = 0; i < eventCount; i++) {
+				LogMinerEvent e = events.get(i);
+				records[i] = new SourceRecord(e.getPartition(), e.getOffset(), topic, e.getSchema(), e.getStruct());
+				if (trackChanges) {
+					changedTables.add(e.getTable());
+				}
+			}
+			for (int i = 0; i < idleTables.size(); i++) {
+				records[eventCount + i] = createHeartbeatRecord(idleTables.get(i), now);
+			}
+			if (emitWatermark) {
+				records[size - 1] = createWatermarkRecord(batchSCN, now);
+				lastWatermarkMillis = now;
+			}
+			return Arrays.asList(records);
 		} catch (Exception e) {
 			throw new ConnectException("Error during LogMinerSourceTask poll", e);
 		}
 	}
 
+	/**
+	 * Tables without events since the previous heartbeat, which are due a
+	 * heartbeat moving their offset to the current mining position. There are
+	 * none while that position has not moved since the previous heartbeat.
+	 */
+	private List<Table> getIdleTables(List<LogMinerEvent> events, long now) {
+		lastHeartbeatMillis = now;
+		if (events != null) {
+			for (LogMinerEvent e : events) {
+				changedTables.add(e.getTable());
+			}
+		}
+
+		List<Table> idle = new ArrayList<>();
+		Map<String, Object> position = getHeartbeatPosition(now);
+		if (position != null && !isSamePosition(position, heartbeatOffset)) {
+			for (Table table : tables) {
+				if (!changedTables.contains(table)) {
+					idle.add(table);
+				}
+			}
+			heartbeatOffset = position;
+		}
+		changedTables.clear();
+		LOGGER.debug("Heartbeat for {} idle tables at {}", idle.size(), position);
+		session.getMetrics().heartbeatsSent(idle.size());
+		return idle;
+	}
+
+	/**
+	 * The position of the last event returned, or beyond it the SCN up to which
+	 * the session reports every change returned, when that is known
+	 */
+	private Map<String, Object> getHeartbeatPosition(long now) {
+		long mined = session.getMinedSystemChangeNumber();
+		if (mined > 0 && (progressOffset == null
+				|| mined >= getLong(progressOffset, LogMinerSourceConnectorConstants.FIELD_COMMIT_SCN))) {
+			return new Offset(mined + 1, mined + 1, null, now).toMap();
+		}
+		return progressOffset;
+	}
+
+	private static boolean isSamePosition(Map<String, Object> offset, Map<String, Object> other) {
+		return other != null
+				&& Objects.equals(offset.get(LogMinerSourceConnectorConstants.FIELD_SCN),
+						other.get(LogMinerSourceConnectorConstants.FIELD_SCN))
+				&& Objects.equals(offset.get(LogMinerSourceConnectorConstants.FIELD_COMMIT_SCN),
+						other.get(LogMinerSourceConnectorConstants.FIELD_COMMIT_SCN))
+				&& Objects.equals(offset.get(LogMinerSourceConnectorConstants.FIELD_RS_ID),
+						other.get(LogMinerSourceConnectorConstants.FIELD_RS_ID))
+				&& Objects.equals(offset.get(LogMinerSourceConnectorConstants.FIELD_SSN),
+						other.get(LogMinerSourceConnectorConstants.FIELD_SSN));
+	}
+
+	private static long getLong(Map<String, Object> offset, String field) {
+		return ((Number) offset.get(field)).longValue();
+	}
+
+	private SourceRecord createHeartbeatRecord(Table table, long timestamp) {
+		Struct value = new Struct(LogMinerSourceConnectorConstants.HEARTBEAT_SCHEMA)
+				.put(LogMinerSourceConnectorConstants.FIELD_SCN,
+						getLong(heartbeatOffset, LogMinerSourceConnectorConstants.FIELD_SCN))
+				.put(LogMinerSourceConnectorConstants.FIELD_COMMIT_SCN,
+						getLong(heartbeatOffset, LogMinerSourceConnectorConstants.FIELD_COMMIT_SCN))
+				.put(LogMinerSourceConnectorConstants.FIELD_TIMESTAMP, new Date(timestamp));
+		return new SourceRecord(table.getPartition(), heartbeatOffset, heartbeatTopic, null, Schema.STRING_SCHEMA,
+				table.getQName(), LogMinerSourceConnectorConstants.HEARTBEAT_SCHEMA, value);
+	}
+
+	/**
+	 * Record moving the task watermark partition to the given SCN, delivered last
+	 * in its batch so that Connect only stores it once all the batch's events
+	 * are acknowledged
+	 */
+	private SourceRecord createWatermarkRecord(long scn, long timestamp) {
+		Struct value = new Struct(LogMinerSourceConnectorConstants.WATERMARK_SCHEMA)
+				.put(LogMinerSourceConnectorConstants.FIELD_SCN, scn)
+				.put(LogMinerSourceConnectorConstants.FIELD_TIMESTAMP, new Date(timestamp));
+		return new SourceRecord(watermarkPartition,
+				Collections.singletonMap(LogMinerSourceConnectorConstants.FIELD_SCN, scn), watermarkTopic, null,
+				Schema.STRING_SCHEMA, watermarkId, LogMinerSourceConnectorConstants.WATERMARK_SCHEMA, value);
+	}
+
+	/**
+	 * Read the stored offsets of the task's partitions
+	 * 
+	 * @param state
+	 *            receives the offset of each table partition
+	 * @return SCN of the stored task watermark, or null if there is none; the
+	 *         reader also returns requested partitions without an offset, with a
+	 *         null value
+	 */
+	static Long readOffsets(OffsetStorageReader reader, List<Map<String, String>> partitions,
+			Map<Table, Offset> state) {
+		LOGGER.trace("Requesting offsets for partitions: {}", partitions);
+		Map<Map<String, String>, Map<String, Object>> offsets = reader.offsets(partitions);
+		LOGGER.trace("Returned offsets: {}", offsets);
+
+		Long resumeSCN = null;
+		if (offsets != null) {
+			for (Map.Entry<Map<String, String>, Map<String, Object>> entry : offsets.entrySet()) {
+				Map<String, String> partition = entry.getKey();
+				if (partition.containsKey(LogMinerSourceConnectorConstants.WATERMARK_KEY)) {
+					Long scn = Offset.fromMap(entry.getValue()).getSystemChangeNumber();
+					if (scn != null && scn > 0) {
+						resumeSCN = scn;
+						LOGGER.debug("Task watermark {} at SCN {}",
+								partition.get(LogMinerSourceConnectorConstants.WATERMARK_KEY), resumeSCN);
+					}
+					continue;
+				}
+				LOGGER.debug("Setting offset for returned partition {}", partition);
+				Table t = Table.fromQName(partition.get(LogMinerSourceConnectorConstants.TABLE_NAME_KEY));
+				state.put(t, Offset.fromMap(entry.getValue()));
+			}
+		}
+		return resumeSCN;
+	}
+
+	/**
+	 * The watermark partition is keyed by the task's table set, so that a task
+	 * whose tables changed on reconfiguration does not resume from a watermark
+	 * that another set of tables advanced
+	 */
+	static String getWatermarkId(List<String> tables) {
+		List<String> sorted = new ArrayList<>(tables);
+		Collections.sort(sorted);
+		return UUID.nameUUIDFromBytes(String.join(",", sorted).getBytes(StandardCharsets.UTF_8)).toString();
+	}
+
+	@Override
+	public void commitRecord(SourceRecord record) throws InterruptedException {
+		Object scn = record.sourceOffset().get(LogMinerSourceConnectorConstants.FIELD_SCN);
+		if (scn instanceof Number) {
+			session.getMetrics().recordAcknowledged(((Number) scn).longValue());
+		}
+	}
+
 	@Override
 	public void stop() {
 		LOGGER.info("Stopping LogMiner source task");
 		running.set(false);
+		/*
+		 * Connect calls stop from another thread while a poll may be in progress;
+		 * closing the session once it returns joins the fetcher and decode threads
+		 * and releases the connections, MBeans and local files
+		 */
+		synchronized (pollLock) {
+			if (session != null) {
+				session.close();
+			}
+		}
 	}
 }
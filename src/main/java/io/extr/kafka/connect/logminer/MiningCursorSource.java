@@ -0,0 +1,62 @@
+/**
+ * Copyright 2018 David Arnold
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ **/
+
+package io.extr.kafka.connect.logminer;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Supplies the fetcher thread with successive mining query cursors and owns the
+ * LogMiner session(s) they read from. All methods other than {@link #stop()}
+ * are called from the fetcher thread.
+ */
+public interface MiningCursorSource extends AutoCloseable {
+	/**
+	 * Open the next cursor over V$LOGMNR_CONTENTS, waiting as necessary for redo
+	 * to become available
+	 * 
+	 * @return the cursor, or null once mining is finished or stopped
+	 * @throws SQLException
+	 * @throws InterruptedException
+	 */
+	public ResultSet open() throws SQLException, InterruptedException;
+
+	/**
+	 * Called after the cursor returned by {@link #open()} has been read to the end
+	 * 
+	 * @throws SQLException
+	 */
+	public void completed() throws SQLException;
+
+	/**
+	 * @return highest SCN whose redo has been read to the end by a completed
+	 *         cursor, or 0 when the source cannot tell; may be called from any
+	 *         thread
+	 */
+	public long getCompletedSCN();
+
+	/**
+	 * Stop waiting for redo; may be called from any thread
+	 */
+	public void stop();
+
+	/**
+	 * End the LogMiner session
+	 */
+	@Override
+	public void close() throws SQLException;
+}
@@ -0,0 +1,115 @@
+/**
+ * Copyright 2018 David Arnold
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ **/
+
+package io.extr.kafka.connect.logminer;
+
+import java.util.Map;
+
+import io.extr.kafka.connect.logminer.model.Table;
+import io.extr.kafka.connect.logminer.util.LongLongHashMap;
+
+/**
+ * Client side part of the compact mining filter. The mining query is bounded
+ * by a single start SCN for all tables, so each table's own committed offset
+ * is enforced here against the object key (SRC_CON_ID / DATA_OBJ#) of each
+ * mined row.
+ * <p>
+ * When the query selects whole owners, rows for objects not resolved up front
+ * (other tables of the owner, or partitions added since) are matched by name
+ * once and the outcome remembered against their object key.
+ */
+public class MiningObjectFilter {
+	private static final long MISSING = Long.MIN_VALUE;
+	private static final long REJECTED = Long.MAX_VALUE;
+
+	private final LongLongHashMap commitSCNFloors;
+	private final Map<Table, Long> tableCommitSCNFloors;
+	private final boolean resolveUnknown;
+	private final long startSCN;
+
+	/**
+	 * @param objectKeys           object keys of each table
+	 * @param tableCommitSCNFloors lowest COMMIT_SCN to deliver for each table
+	 * @param resolveUnknown       whether rows for objects not in the key map
+	 *                             are matched by table name
+	 */
+	public MiningObjectFilter(Map<Table, long[]> objectKeys, Map<Table, Long> tableCommitSCNFloors,
+			boolean resolveUnknown) {
+		this.commitSCNFloors = new LongLongHashMap(objectKeys.size(), MISSING);
+		this.tableCommitSCNFloors = tableCommitSCNFloors;
+		this.resolveUnknown = resolveUnknown;
+
+		long start = Long.MAX_VALUE;
+		for (Map.Entry<Table, long[]> entry : objectKeys.entrySet()) {
+			long floor = tableCommitSCNFloors.get(entry.getKey());
+			for (long key : entry.getValue()) {
+				commitSCNFloors.put(key, floor);
+			}
+		}
+		for (Long floor : tableCommitSCNFloors.values()) {
+			start = Math.min(start, floor);
+		}
+		this.startSCN = start == Long.MAX_VALUE ? 0L : start;
+	}
+
+	/**
+	 * @return the lowest COMMIT_SCN of any table, bounding the mining query
+	 */
+	public long getStartSCN() {
+		return startSCN;
+	}
+
+	/**
+	 * @return the object keys named in the mining query
+	 */
+	public long[] getObjectKeys() {
+		return commitSCNFloors.keys();
+	}
+
+	/**
+	 * @return whether rows for the object can be checked with
+	 *         {@link #accept(long, long)} without first calling
+	 *         {@link #resolve(long, String, String, String)}
+	 */
+	public boolean isResolved(long objectKey) {
+		return !resolveUnknown || commitSCNFloors.containsKey(objectKey);
+	}
+
+	/**
+	 * Match an object not resolved up front to a table by name
+	 */
+	public void resolve(long objectKey, String databaseName, String ownerName, String tableName) {
+		Long floor = tableCommitSCNFloors.get(new Table(databaseName, ownerName, tableName));
+		commitSCNFloors.put(objectKey, floor == null ? REJECTED : floor);
+	}
+
+	/**
+	 * @return false if the object belongs to a table not mined by this task
+	 */
+	public boolean isMined(long objectKey) {
+		long floor = commitSCNFloors.get(objectKey);
+		return floor != MISSING && floor != REJECTED;
+	}
+
+	/**
+	 * @return false if the row is for a table not mined by this task, or was
+	 *         committed before the table's offset
+	 */
+	public boolean accept(long objectKey, long commitSCN) {
+		long floor = commitSCNFloors.get(objectKey);
+		return floor != MISSING && commitSCN >= floor;
+	}
+}
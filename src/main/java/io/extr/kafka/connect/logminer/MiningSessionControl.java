@@ -0,0 +1,177 @@
+/**
+ * Copyright 2018 David Arnold
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ **/
+
+package io.extr.kafka.connect.logminer;
+
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.extr.kafka.connect.logminer.dialect.BaseLogMinerDialect;
+import io.extr.kafka.connect.logminer.dialect.LogMinerDialect;
+
+/**
+ * Drives a LogMiner session on a single connection through successive SCN
+ * ranges. {@link #rollover(long, long)} moves the session to the next range
+ * without END_LOGMNR: only log files that the new range needs and that are not
+ * yet registered are added, files that lie wholly before it are removed, and
+ * START_LOGMNR is called again on the same session. Ranges are inclusive, so
+ * rolling over to the SCN after the end of the previous range neither skips nor
+ * re-reads redo. The prepared statements used for this are kept for the life
+ * of the control, as is the caller's mining query.
+ */
+public class MiningSessionControl implements AutoCloseable {
+	private static final Logger LOGGER = LoggerFactory.getLogger(MiningSessionControl.class);
+
+	private final LogMinerMetrics metrics;
+	private final PreparedStatement currentSCNQuery;
+	private final PreparedStatement logFilesQuery;
+	private final CallableStatement addLogFile;
+	private final CallableStatement removeLogFile;
+	private final CallableStatement startMining;
+	private final CallableStatement stopMining;
+
+	private final Set<String> registeredLogFiles = new LinkedHashSet<>();
+	private boolean active;
+
+	public MiningSessionControl(Connection connection, BaseLogMinerDialect dialect, LogMinerMetrics metrics,
+			boolean committedDataOnly) throws SQLException {
+		this.metrics = metrics;
+		currentSCNQuery = connection.prepareStatement(dialect.getStatement(LogMinerDialect.Statement.CURRENT_SCN));
+		logFilesQuery = connection.prepareStatement(dialect.getStatement(LogMinerDialect.Statement.LOG_FILES));
+		addLogFile = connection.prepareCall(dialect.getStatement(LogMinerDialect.Statement.ADD_LOGFILE));
+		removeLogFile = connection.prepareCall(dialect.getStatement(LogMinerDialect.Statement.REMOVE_LOGFILE));
+		startMining = connection.prepareCall(dialect.getStatement(committedDataOnly
+				? LogMinerDialect.Statement.START_MINING_WINDOW
+				: LogMinerDialect.Statement.START_MINING_WINDOW_UNCOMMITTED));
+		stopMining = connection.prepareCall(dialect.getStatement(LogMinerDialect.Statement.STOP_MINING));
+	}
+
+	/**
+	 * Start mining the inclusive SCN range, ending nothing that can be reused from
+	 * the previous range
+	 * 
+	 * @param startSCN first SCN to mine
+	 * @param endSCN   last SCN to mine
+	 * @throws SQLException
+	 */
+	public void rollover(long startSCN, long endSCN) throws SQLException {
+		Set<String> logFiles = getLogFiles(startSCN, endSCN);
+		if (logFiles.isEmpty()) {
+			throw new SQLException(
+					String.format("No online or archived redo log covers SCN range %d - %d", startSCN, endSCN));
+		}
+
+		int added = 0;
+		for (String logFile : logFiles) {
+			if (!registeredLogFiles.contains(logFile)) {
+				LOGGER.trace("Adding log file {}", logFile);
+				addLogFile.setString(1, logFile);
+				addLogFile.execute();
+				added++;
+			}
+		}
+		Iterator<String> it = registeredLogFiles.iterator();
+		while (it.hasNext()) {
+			String logFile = it.next();
+			if (!logFiles.contains(logFile)) {
+				LOGGER.trace("Removing log file {}", logFile);
+				removeLogFile.setString(1, logFile);
+				removeLogFile.execute();
+				it.remove();
+			}
+		}
+		registeredLogFiles.addAll(logFiles);
+		metrics.logFilesRegistered(added);
+
+		startMining.setLong(1, startSCN);
+		startMining.setLong(2, endSCN);
+		startMining.execute();
+		if (active) {
+			metrics.miningSessionRolledOver();
+		}
+		active = true;
+		LOGGER.debug("Mining SCN range {} - {} from {} log files ({} added)", startSCN, endSCN, logFiles.size(),
+				added);
+	}
+
+	/**
+	 * End the LogMiner session, if one is active; the next
+	 * {@link #rollover(long, long)} registers log files from scratch
+	 * 
+	 * @throws SQLException
+	 */
+	public void end() throws SQLException {
+		if (active) {
+			stopMining.execute();
+			active = false;
+		}
+		registeredLogFiles.clear();
+	}
+
+	public long getCurrentSCN() throws SQLException {
+		long scn = 0L;
+		try (ResultSet r = currentSCNQuery.executeQuery()) {
+			while (r.next()) {
+				scn = r.getLong(1);
+			}
+		}
+		return scn;
+	}
+
+	@Override
+	public void close() throws SQLException {
+		try {
+			end();
+		} finally {
+			currentSCNQuery.close();
+			logFilesQuery.close();
+			addLogFile.close();
+			removeLogFile.close();
+			startMining.close();
+			stopMining.close();
+		}
+	}
+
+	private Set<String> getLogFiles(long startSCN, long endSCN) throws SQLException {
+		Set<String> logFiles = new LinkedHashSet<>();
+		logFilesQuery.setLong(1, startSCN);
+		logFilesQuery.setLong(2, endSCN);
+		try (ResultSet r = logFilesQuery.executeQuery()) {
+			long previousThread = -1L;
+			long previousSequence = -1L;
+			while (r.next()) {
+				long thread = r.getLong(2);
+				long sequence = r.getLong(3);
+				/* Prefer the archived copy of a log that is also still online */
+				if (thread != previousThread || sequence != previousSequence) {
+					logFiles.add(r.getString(1));
+				}
+				previousThread = thread;
+				previousSequence = sequence;
+			}
+		}
+		return logFiles;
+	}
+}
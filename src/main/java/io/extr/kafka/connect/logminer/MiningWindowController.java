@@ -0,0 +1,78 @@
+/**
+ * Copyright 2018 David Arnold
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ **/
+
+package io.extr.kafka.connect.logminer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Sizes SCN-bounded mining windows. Each full window mined gives an observed
+ * rate of SCNs mined per ms, which reflects how densely redo was generated over
+ * that range; the next window is sized so that it should take about the target
+ * time to mine at that rate, changing by at most a factor of two per window and
+ * staying within the configured bounds.
+ * 
+ * Not thread safe; owned by the fetcher thread.
+ */
+public class MiningWindowController {
+	private static final Logger LOGGER = LoggerFactory.getLogger(MiningWindowController.class);
+
+	private final long minimum;
+	private final long maximum;
+	private final long targetMillis;
+	private long size;
+
+	public MiningWindowController(long minimum, long maximum, long targetMillis) {
+		this.minimum = Math.max(1L, minimum);
+		this.maximum = Math.max(this.minimum, maximum);
+		this.targetMillis = Math.max(1L, targetMillis);
+		this.size = this.minimum;
+	}
+
+	public long getSize() {
+		return size;
+	}
+
+	/**
+	 * @param startSCN   first SCN of the window
+	 * @param currentSCN latest SCN of the database
+	 * @return last SCN of the window
+	 */
+	public long getEnd(long startSCN, long currentSCN) {
+		return Math.min(currentSCN, startSCN + size - 1);
+	}
+
+	/**
+	 * @param scns          number of SCNs covered by the mined window
+	 * @param elapsedMillis time taken to mine it
+	 */
+	public void completed(long scns, long elapsedMillis) {
+		if (scns < size) {
+			/* Window was cut short at the current SCN, which says little about redo density */
+			return;
+		}
+
+		double scnsPerMilli = (double) scns / Math.max(1L, elapsedMillis);
+		long target = (long) (scnsPerMilli * targetMillis);
+		target = Math.max(size / 2, Math.min(size * 2, target));
+		target = Math.max(minimum, Math.min(maximum, target));
+		if (target != size) {
+			LOGGER.debug("Mining window size {} -> {} SCNs ({} SCNs in {} ms)", size, target, scns, elapsedMillis);
+			size = target;
+		}
+	}
+}
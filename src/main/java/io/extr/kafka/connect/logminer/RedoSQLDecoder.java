@@ -0,0 +1,607 @@
+/**
+ * Copyright 2018 David Arnold
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ **/
+
+package io.extr.kafka.connect.logminer;
+
+import java.util.Arrays;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import net.sf.jsqlparser.JSQLParserException;
+
+/**
+ * Single pass decoder for the INSERT, UPDATE and DELETE statements LogMiner
+ * writes to SQL_REDO under STRING_LITERALS_IN_STMT and NO_ROWID_IN_STMT.
+ * Column/value pairs are written into buffers reused from row to row; any
+ * statement outside that grammar is handed to {@link LogMinerSQLParser}.
+ * Instances are not thread safe.
+ */
+public class RedoSQLDecoder {
+	private static final Logger LOGGER = LoggerFactory.getLogger(RedoSQLDecoder.class);
+
+	public static final char STATEMENT_UNKNOWN = 0;
+	public static final char STATEMENT_INSERT = 'I';
+	public static final char STATEMENT_UPDATE = 'U';
+	public static final char STATEMENT_DELETE = 'D';
+
+	private static final String TIMESTAMP_PREFIX = "TIMESTAMP";
+	private static final String TO_DATE = "TO_DATE";
+	private static final String TO_TIMESTAMP = "TO_TIMESTAMP";
+	private static final String TO_TIMESTAMP_TZ = "TO_TIMESTAMP_TZ";
+	private static final String HEXTORAW = "HEXTORAW";
+
+	private final ColumnValues before = new ColumnValues();
+	private final ColumnValues after = new ColumnValues();
+	private final StringBuilder literal = new StringBuilder();
+
+	private String sql;
+	private int pos;
+	private int length;
+	private int nameStart;
+	private int nameEnd;
+	private String valueSource;
+	private int valueStart;
+	private int valueEnd;
+	private char statementType;
+
+	/**
+	 * Decodes a redo statement into the before and after column values
+	 * 
+	 * @param redoSQL
+	 *            the SQL_REDO text
+	 * @return true if the statement was decoded directly, false if it was handed
+	 *         to the general purpose parser
+	 * @throws JSQLParserException
+	 *             if neither decoder understands the statement
+	 */
+	public boolean decode(String redoSQL) throws JSQLParserException {
+		before.reset(redoSQL);
+		after.reset(redoSQL);
+		sql = redoSQL;
+		pos = 0;
+		length = redoSQL.length();
+		boolean decoded;
+		try {
+			decoded = decodeStatement();
+		} finally {
+			sql = null;
+		}
+		if (decoded) {
+			LOGGER.trace("Decoded redo SQL into before: {}, after {}", before, after);
+			return true;
+		}
+
+		LOGGER.debug("Redo SQL not in the LogMiner grammar, falling back to the SQL parser: {}", redoSQL);
+		statementType = STATEMENT_UNKNOWN;
+		before.reset(null);
+		after.reset(null);
+		Map<String, Map<String, String>> changes = LogMinerSQLParser.parseRedoSQL(redoSQL);
+		before.addAll(changes.get(LogMinerSourceConnectorConstants.FIELD_BEFORE_DATA_ROW));
+		after.addAll(changes.get(LogMinerSourceConnectorConstants.FIELD_AFTER_DATA_ROW));
+		return false;
+	}
+
+	/**
+	 * @return {@link #STATEMENT_INSERT}, {@link #STATEMENT_UPDATE} or
+	 *         {@link #STATEMENT_DELETE} for a directly decoded statement,
+	 *         otherwise {@link #STATEMENT_UNKNOWN}
+	 */
+	public char getStatementType() {
+		return statementType;
+	}
+
+	/**
+	 * @return hash of the statement type and its before and after column lists,
+	 *         identifying statements of the same shape
+	 */
+	public int getShapeHash() {
+		return 31 * (31 * statementType + before.columnsHash()) + after.columnsHash();
+	}
+
+	/**
+	 * @return column values of the row before the change, valid until the next
+	 *         call to {@link #decode(String)}
+	 */
+	public ColumnValues getBefore() {
+		return before;
+	}
+
+	/**
+	 * @return column values of the row after the change, valid until the next
+	 *         call to {@link #decode(String)}
+	 */
+	public ColumnValues getAfter() {
+		return after;
+	}
+
+	private boolean decodeStatement() {
+		if (keyword("insert")) {
+			statementType = STATEMENT_INSERT;
+			return keyword("into") && skipName() && insertValues() && atEnd();
+		}
+		if (keyword("update")) {
+			statementType = STATEMENT_UPDATE;
+			return skipName() && keyword("set") && assignments(after) && (atEnd() || keyword("where")
+					&& conditions(before) && atEnd());
+		}
+		if (keyword("delete")) {
+			statementType = STATEMENT_DELETE;
+			return keyword("from") && skipName() && keyword("where") && conditions(before) && atEnd();
+		}
+		return false;
+	}
+
+	private boolean insertValues() {
+		if (!accept('(')) {
+			return false;
+		}
+		do {
+			if (!identifier()) {
+				return false;
+			}
+			after.add(nameStart, nameEnd, null, 0, 0);
+		} while (accept(','));
+		if (!accept(')') || !keyword("values") || !accept('(')) {
+			return false;
+		}
+		for (int i = 0; i < after.size(); i++) {
+			if (i > 0 && !accept(',')) {
+				return false;
+			}
+			if (!value()) {
+				return false;
+			}
+			after.setValue(i, valueSource, valueStart, valueEnd);
+		}
+		return accept(')');
+	}
+
+	private boolean assignments(ColumnValues target) {
+		do {
+			if (!identifier()) {
+				return false;
+			}
+			int start = nameStart;
+			int end = nameEnd;
+			if (!accept('=') || !value()) {
+				return false;
+			}
+			target.add(start, end, valueSource, valueStart, valueEnd);
+		} while (accept(','));
+		return true;
+	}
+
+	private boolean conditions(ColumnValues target) {
+		do {
+			if (!identifier()) {
+				return false;
+			}
+			int start = nameStart;
+			int end = nameEnd;
+			if (accept('=')) {
+				if (!value()) {
+					return false;
+				}
+			} else if (keyword("IS") && keyword("NULL")) {
+				valueSource = null;
+			} else {
+				return false;
+			}
+			target.add(start, end, valueSource, valueStart, valueEnd);
+		} while (keyword("and"));
+		return true;
+	}
+
+	/**
+	 * Reads a literal, NULL, or a function call, leaving the value's extent in
+	 * valueSource, valueStart and valueEnd; valueSource is null for NULL. The
+	 * literal argument of TO_DATE, TO_TIMESTAMP, TO_TIMESTAMP_TZ and HEXTORAW is
+	 * taken as the value, which under the session's fixed NLS formats is in the
+	 * canonical datetime form; any other call is taken verbatim.
+	 * 
+	 * @return false if the next token is not a value
+	 */
+	private boolean value() {
+		skipWhitespace();
+		if (pos >= length) {
+			return false;
+		}
+		char c = sql.charAt(pos);
+		if (c == '\'') {
+			return quoted();
+		}
+		if (c == '-' || c == '+' || c == '.' || Character.isDigit(c)) {
+			int start = pos++;
+			while (pos < length && isNumberPart(sql.charAt(pos))) {
+				pos++;
+			}
+			return span(sql, start, pos);
+		}
+		if (!Character.isLetter(c)) {
+			return false;
+		}
+		int start = pos;
+		while (pos < length && isIdentifierPart(sql.charAt(pos))) {
+			pos++;
+		}
+		int end = pos;
+		skipWhitespace();
+		if (pos < length && sql.charAt(pos) == '(') {
+			return call(start, end);
+		}
+		if (isWord(start, end, LogMinerSourceConnectorConstants.NULL_FIELD)) {
+			valueSource = null;
+			return true;
+		}
+		if (isWord(start, end, TIMESTAMP_PREFIX) && pos < length && sql.charAt(pos) == '\'' && quoted()) {
+			while (valueStart < valueEnd && Character.isWhitespace(valueSource.charAt(valueStart))) {
+				valueStart++;
+			}
+			while (valueEnd > valueStart && Character.isWhitespace(valueSource.charAt(valueEnd - 1))) {
+				valueEnd--;
+			}
+			return true;
+		}
+		return false;
+	}
+
+	private boolean call(int start, int end) {
+		pos++;
+		if (isWord(start, end, TO_DATE) || isWord(start, end, TO_TIMESTAMP) || isWord(start, end, TO_TIMESTAMP_TZ)
+				|| isWord(start, end, HEXTORAW)) {
+			skipWhitespace();
+			if (pos < length && sql.charAt(pos) == '\'') {
+				String source = null;
+				int from = 0;
+				int to = 0;
+				if (quoted()) {
+					source = valueSource;
+					from = valueStart;
+					to = valueEnd;
+				}
+				return skipArguments() && span(source, from, to);
+			}
+		}
+		return skipArguments() && span(sql, start, pos);
+	}
+
+	/**
+	 * Advances past the parenthesis closing the call's argument list
+	 */
+	private boolean skipArguments() {
+		int depth = 1;
+		while (pos < length) {
+			char c = sql.charAt(pos);
+			if (c == '\'') {
+				int close = closingQuote(pos);
+				if (close < 0) {
+					return false;
+				}
+				pos = close + 1;
+				continue;
+			}
+			pos++;
+			if (c == '(') {
+				depth++;
+			} else if (c == ')' && --depth == 0) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private boolean quoted() {
+		int close = closingQuote(pos);
+		if (close < 0) {
+			return false;
+		}
+		int start = pos + 1;
+		pos = close + 1;
+		int escape = sql.indexOf("''", start);
+		if (escape < 0 || escape >= close) {
+			return span(sql, start, close);
+		}
+		literal.setLength(0);
+		for (int i = start; i < close; i++) {
+			char c = sql.charAt(i);
+			literal.append(c);
+			if (c == '\'') {
+				i++;
+			}
+		}
+		String unescaped = literal.toString();
+		return span(unescaped, 0, unescaped.length());
+	}
+
+	private boolean span(String source, int start, int end) {
+		valueSource = source;
+		valueStart = start;
+		valueEnd = end;
+		return source != null;
+	}
+
+	private boolean isWord(int start, int end, String word) {
+		return end - start == word.length() && sql.regionMatches(true, start, word, 0, word.length());
+	}
+
+	/**
+	 * @return index of the quote closing the literal opened at {@code open},
+	 *         stepping over doubled quotes, or -1 if unterminated
+	 */
+	private int closingQuote(int open) {
+		int i = open + 1;
+		while (true) {
+			i = sql.indexOf('\'', i);
+			if (i < 0) {
+				return -1;
+			}
+			if (i + 1 < length && sql.charAt(i + 1) == '\'') {
+				i += 2;
+			} else {
+				return i;
+			}
+		}
+	}
+
+	/**
+	 * Reads a column name, leaving its unquoted extent in nameStart and nameEnd
+	 */
+	private boolean identifier() {
+		skipWhitespace();
+		if (pos >= length) {
+			return false;
+		}
+		if (sql.charAt(pos) == '"') {
+			int close = sql.indexOf('"', pos + 1);
+			if (close < 0) {
+				return false;
+			}
+			nameStart = pos + 1;
+			nameEnd = close;
+			pos = close + 1;
+			return true;
+		}
+		nameStart = pos;
+		while (pos < length && isIdentifierPart(sql.charAt(pos))) {
+			pos++;
+		}
+		nameEnd = pos;
+		return pos > nameStart;
+	}
+
+	private boolean skipName() {
+		do {
+			skipWhitespace();
+			if (pos >= length) {
+				return false;
+			}
+			if (sql.charAt(pos) == '"') {
+				int close = sql.indexOf('"', pos + 1);
+				if (close < 0) {
+					return false;
+				}
+				pos = close + 1;
+			} else {
+				int start = pos;
+				while (pos < length && isIdentifierPart(sql.charAt(pos))) {
+					pos++;
+				}
+				if (pos == start) {
+					return false;
+				}
+			}
+		} while (accept('.'));
+		return true;
+	}
+
+	private boolean keyword(String word) {
+		skipWhitespace();
+		int end = pos + word.length();
+		if (end > length || !sql.regionMatches(true, pos, word, 0, word.length())
+				|| (end < length && isIdentifierPart(sql.charAt(end)))) {
+			return false;
+		}
+		pos = end;
+		return true;
+	}
+
+	private boolean accept(char c) {
+		skipWhitespace();
+		if (pos < length && sql.charAt(pos) == c) {
+			pos++;
+			return true;
+		}
+		return false;
+	}
+
+	private boolean atEnd() {
+		accept(';');
+		skipWhitespace();
+		return pos == length;
+	}
+
+	private void skipWhitespace() {
+		while (pos < length && Character.isWhitespace(sql.charAt(pos))) {
+			pos++;
+		}
+	}
+
+	private static boolean isIdentifierPart(char c) {
+		return Character.isLetterOrDigit(c) || c == '_' || c == '$' || c == '#';
+	}
+
+	private static boolean isNumberPart(char c) {
+		return Character.isDigit(c) || c == '.' || c == 'E' || c == 'e' || c == '-' || c == '+';
+	}
+
+	/**
+	 * Ordered column name to value pairs backed by arrays that grow to the widest
+	 * row seen and are then reused. Decoded column names and values are kept as
+	 * extents of the redo SQL and only copied out when asked for.
+	 */
+	public static class ColumnValues {
+		private String sql;
+		private int[] starts = new int[16];
+		private int[] ends = new int[16];
+		private String[] columns = new String[16];
+		private String[] valueSources = new String[16];
+		private int[] valueStarts = new int[16];
+		private int[] valueEnds = new int[16];
+		private int size;
+
+		public int size() {
+			return size;
+		}
+
+		public String getColumn(int index) {
+			if (columns[index] == null) {
+				columns[index] = sql.substring(starts[index], ends[index]);
+			}
+			return columns[index];
+		}
+
+		/**
+		 * @return the literal text of the value, or null for SQL NULL
+		 */
+		public String getValue(int index) {
+			String source = valueSources[index];
+			return source == null ? null : source.substring(valueStarts[index], valueEnds[index]);
+		}
+
+		/**
+		 * @return the string holding the value's text, usually the redo SQL itself,
+		 *         or null for SQL NULL
+		 */
+		public String getValueSource(int index) {
+			return valueSources[index];
+		}
+
+		public int getValueStart(int index) {
+			return valueStarts[index];
+		}
+
+		public int getValueEnd(int index) {
+			return valueEnds[index];
+		}
+
+		/**
+		 * @return the column names, in order, as a new array
+		 */
+		public String[] getColumns() {
+			String[] names = new String[size];
+			for (int i = 0; i < size; i++) {
+				names[i] = getColumn(i);
+			}
+			return names;
+		}
+
+		/**
+		 * @return whether the column names are exactly {@code names}, in order
+		 */
+		public boolean hasColumns(String[] names) {
+			if (names.length != size) {
+				return false;
+			}
+			for (int i = 0; i < size; i++) {
+				if (columns[i] != null) {
+					if (!columns[i].equals(names[i])) {
+						return false;
+					}
+				} else if (ends[i] - starts[i] != names[i].length()
+						|| !sql.regionMatches(starts[i], names[i], 0, names[i].length())) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		int columnsHash() {
+			int hash = size;
+			for (int i = 0; i < size; i++) {
+				if (columns[i] != null) {
+					hash = 31 * hash + columns[i].hashCode();
+				} else {
+					int h = 0;
+					for (int j = starts[i]; j < ends[i]; j++) {
+						h = 31 * h + sql.charAt(j);
+					}
+					hash = 31 * hash + h;
+				}
+			}
+			return hash;
+		}
+
+		void add(int start, int end, String valueSource, int valueStart, int valueEnd) {
+			ensureCapacity();
+			starts[size] = start;
+			ends[size] = end;
+			setValue(size, valueSource, valueStart, valueEnd);
+			size++;
+		}
+
+		void add(String column, String value) {
+			ensureCapacity();
+			columns[size] = column;
+			setValue(size, value, 0, value == null ? 0 : value.length());
+			size++;
+		}
+
+		void addAll(Map<String, String> data) {
+			for (Map.Entry<String, String> entry : data.entrySet()) {
+				String value = entry.getValue();
+				add(entry.getKey(), LogMinerSourceConnectorConstants.NULL_FIELD.equals(value) ? null : value);
+			}
+		}
+
+		void setValue(int index, String valueSource, int valueStart, int valueEnd) {
+			valueSources[index] = valueSource;
+			valueStarts[index] = valueStart;
+			valueEnds[index] = valueEnd;
+		}
+
+		void reset(String sql) {
+			Arrays.fill(columns, 0, size, null);
+			Arrays.fill(valueSources, 0, size, null);
+			size = 0;
+			this.sql = sql;
+		}
+
+		private void ensureCapacity() {
+			if (size == columns.length) {
+				starts = Arrays.copyOf(starts, size * 2);
+				ends = Arrays.copyOf(ends, size * 2);
+				columns = Arrays.copyOf(columns, size * 2);
+				valueSources = Arrays.copyOf(valueSources, size * 2);
+				valueStarts = Arrays.copyOf(valueStarts, size * 2);
+				valueEnds = Arrays.copyOf(valueEnds, size * 2);
+			}
+		}
+
+		@Override
+		public String toString() {
+			StringBuilder sb = new StringBuilder("{");
+			for (int i = 0; i < size; i++) {
+				if (i > 0) {
+					sb.append(", ");
+				}
+				sb.append(getColumn(i)).append('=').append(getValue(i));
+			}
+			return sb.append('}').toString();
+		}
+	}
+}
@@ -0,0 +1,170 @@
+/**
+ * Copyright 2018 David Arnold
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ **/
+
+package io.extr.kafka.connect.logminer;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.apache.kafka.connect.data.Field;
+import org.apache.kafka.connect.data.Schema;
+import org.apache.kafka.connect.errors.DataException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.extr.kafka.connect.logminer.model.Table;
+
+/**
+ * Bounded, least recently used cache of redo statement shapes: the table,
+ * statement type and ordered before and after column lists, with each column
+ * resolved to its field in the table's row schema. A hit leaves only the
+ * literal values to convert for each row. Instances are not thread safe.
+ */
+public class RedoShapeCache {
+	private static final Logger LOGGER = LoggerFactory.getLogger(RedoShapeCache.class);
+
+	private final Map<ShapeKey, Shape> shapes;
+	private final ShapeKey probe = new ShapeKey(null, RedoSQLDecoder.STATEMENT_UNKNOWN, 0);
+	private final LogMinerMetrics metrics;
+
+	public RedoShapeCache(final int maxEntries, LogMinerMetrics metrics) {
+		this.shapes = new LinkedHashMap<ShapeKey, Shape>(16, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<ShapeKey, Shape> eldest) {
+				return size() > maxEntries;
+			}
+		};
+		this.metrics = metrics;
+	}
+
+	/**
+	 * Looks up, or compiles and caches, the shape of the statement last decoded
+	 * 
+	 * @param table
+	 *            table the statement changes
+	 * @param rowSchema
+	 *            current row schema of the table
+	 * @param decoder
+	 *            decoder holding the statement
+	 * @return the shape, or null if the statement was not decoded directly
+	 * @throws DataException
+	 *             if a column is not in the row schema
+	 */
+	public Shape get(Table table, Schema rowSchema, RedoSQLDecoder decoder) {
+		char statementType = decoder.getStatementType();
+		if (statementType == RedoSQLDecoder.STATEMENT_UNKNOWN) {
+			return null;
+		}
+
+		int hash = decoder.getShapeHash();
+		probe.set(table, statementType, hash);
+		Shape shape = shapes.get(probe);
+		if (shape != null && shape.matches(rowSchema, decoder)) {
+			metrics.shapeCacheHit();
+			return shape;
+		}
+
+		metrics.shapeCacheMiss();
+		shape = new Shape(rowSchema, decoder);
+		shapes.put(new ShapeKey(table, statementType, hash), shape);
+		LOGGER.debug("Cached {} statement shape for {}, {} shapes cached", statementType, table.getQName(),
+				shapes.size());
+		return shape;
+	}
+
+	public int size() {
+		return shapes.size();
+	}
+
+	/**
+	 * Compiled statement shape; field arrays line up with the decoder's before
+	 * and after column values
+	 */
+	public static class Shape {
+		private final Schema rowSchema;
+		private final String[] beforeColumns;
+		private final String[] afterColumns;
+		private final Field[] beforeFields;
+		private final Field[] afterFields;
+
+		Shape(Schema rowSchema, RedoSQLDecoder decoder) {
+			this.rowSchema = rowSchema;
+			this.beforeColumns = decoder.getBefore().getColumns();
+			this.afterColumns = decoder.getAfter().getColumns();
+			this.beforeFields = resolve(rowSchema, beforeColumns);
+			this.afterFields = resolve(rowSchema, afterColumns);
+		}
+
+		public Field[] getBeforeFields() {
+			return beforeFields;
+		}
+
+		public Field[] getAfterFields() {
+			return afterFields;
+		}
+
+		boolean matches(Schema rowSchema, RedoSQLDecoder decoder) {
+			return this.rowSchema == rowSchema && decoder.getBefore().hasColumns(beforeColumns)
+					&& decoder.getAfter().hasColumns(afterColumns);
+		}
+
+		private static Field[] resolve(Schema rowSchema, String[] columns) {
+			Field[] fields = new Field[columns.length];
+			for (int i = 0; i < columns.length; i++) {
+				fields[i] = rowSchema.field(columns[i]);
+				if (fields[i] == null) {
+					throw new DataException(columns[i] + " is not a valid field name");
+				}
+			}
+			return fields;
+		}
+	}
+
+	private static class ShapeKey {
+		private Table table;
+		private char statementType;
+		private int hash;
+
+		ShapeKey(Table table, char statementType, int hash) {
+			set(table, statementType, hash);
+		}
+
+		void set(Table table, char statementType, int hash) {
+			this.table = table;
+			this.statementType = statementType;
+			this.hash = hash;
+		}
+
+		@Override
+		public int hashCode() {
+			return 31 * (table == null ? 0 : table.hashCode()) + hash;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj) {
+				return true;
+			}
+			if (!(obj instanceof ShapeKey)) {
+				return false;
+			}
+			ShapeKey other = (ShapeKey) obj;
+			return hash == other.hash && statementType == other.statementType && table.equals(other.table);
+		}
+	}
+}
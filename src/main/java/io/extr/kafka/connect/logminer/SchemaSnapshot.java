@@ -0,0 +1,211 @@
+/**
+ * Copyright 2018 David Arnold
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ **/
+
+
+package io.extr.kafka.connect.logminer;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.extr.kafka.connect.logminer.model.Column;
+import io.extr.kafka.connect.logminer.model.Table;
+
+/**
+ * Local snapshot of the dictionary descriptions of a task's tables, each with
+ * the LAST_DDL_TIME it was described at and the schema version it was given.
+ * A restarted task reuses the description of every table whose DDL time has
+ * not changed, and only queries the dictionary for the others. Instances are
+ * not thread safe.
+ */
+public class SchemaSnapshot {
+	private static final Logger LOGGER = LoggerFactory.getLogger(SchemaSnapshot.class);
+
+	/* DDL time of descriptions not checked against the dictionary; never matches */
+	public static final long UNKNOWN_DDL_TIME = Long.MIN_VALUE;
+
+	private static final int MAGIC = 0x4C4D5343;
+	private static final int FORMAT_VERSION = 1;
+	private static final String FILE_PREFIX = "logminer-schemas-";
+	private static final String FILE_SUFFIX = ".bin";
+
+	private final Path file;
+	private final Map<Table, Entry> entries = new HashMap<>();
+	private boolean dirty;
+
+	public SchemaSnapshot(Path file) {
+		this.file = file;
+	}
+
+	/**
+	 * @return snapshot file in the directory for the given set of tables
+	 */
+	public static Path getFile(Path directory, Collection<Table> tables) {
+		List<String> names = new ArrayList<>(tables.size());
+		for (Table table : tables) {
+			names.add(table.getQName());
+		}
+		Collections.sort(names);
+		UUID digest = UUID.nameUUIDFromBytes(String.join(",", names).getBytes(StandardCharsets.UTF_8));
+		return directory.resolve(FILE_PREFIX + digest + FILE_SUFFIX);
+	}
+
+	public Path getPath() {
+		return file;
+	}
+
+	/**
+	 * Read the snapshot file, if there is one. A file that cannot be read is
+	 * ignored, so every table is described again.
+	 */
+	public void load() {
+		entries.clear();
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+			if (in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION) {
+				LOGGER.warn("Ignoring schema snapshot {} in an unknown format", file);
+				return;
+			}
+			int tables = in.readInt();
+			for (int i = 0; i < tables; i++) {
+				Table table = new Table(readString(in), readString(in), readString(in));
+				long lastDdlTime = in.readLong();
+				int version = in.readInt();
+				int columnCount = in.readInt();
+				List<Column> columns = new ArrayList<>(columnCount);
+				for (int c = 0; c < columnCount; c++) {
+					columns.add(new Column(in.readUTF(), in.readBoolean(), in.readUTF(), in.readInt(), in.readInt(),
+							in.readInt(), in.readBoolean(), in.readBoolean()));
+				}
+				entries.put(table, new Entry(lastDdlTime, version, columns));
+			}
+			LOGGER.debug("Loaded {} table descriptions from schema snapshot {}", entries.size(), file);
+		} catch (NoSuchFileException e) {
+			LOGGER.debug("No schema snapshot {}", file);
+		} catch (IOException e) {
+			LOGGER.warn("Ignoring unreadable schema snapshot {}", file, e);
+			entries.clear();
+		}
+	}
+
+	/**
+	 * Write the snapshot if it changed since it was loaded or last saved,
+	 * replacing the previous file atomically
+	 * 
+	 * @throws IOException
+	 */
+	public void save() throws IOException {
+		if (!dirty) {
+			return;
+		}
+		Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+		try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporary)))) {
+			out.writeInt(MAGIC);
+			out.writeInt(FORMAT_VERSION);
+			out.writeInt(entries.size());
+			for (Map.Entry<Table, Entry> e : entries.entrySet()) {
+				Table table = e.getKey();
+				Entry entry = e.getValue();
+				writeString(out, table.getDatabaseName());
+				writeString(out, table.getOwnerName());
+				writeString(out, table.getTableName());
+				out.writeLong(entry.lastDdlTime);
+				out.writeInt(entry.version);
+				out.writeInt(entry.columns.size());
+				for (Column column : entry.columns) {
+					out.writeUTF(column.getName());
+					out.writeBoolean(column.isNullable());
+					out.writeUTF(column.getDataType());
+					out.writeInt(column.getDataLength());
+					out.writeInt(column.getDataScale());
+					out.writeInt(column.getDataPrecision());
+					out.writeBoolean(column.isPrimaryKey());
+					out.writeBoolean(column.isUniqueKey());
+				}
+			}
+		}
+		Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		dirty = false;
+		LOGGER.debug("Saved {} table descriptions to schema snapshot {}", entries.size(), file);
+	}
+
+	/**
+	 * @return the stored description of the table, or null if there is none
+	 */
+	public Entry get(Table table) {
+		return entries.get(table);
+	}
+
+	public void put(Table table, long lastDdlTime, int version, List<Column> columns) {
+		entries.put(table, new Entry(lastDdlTime, version, columns));
+		dirty = true;
+	}
+
+	public int size() {
+		return entries.size();
+	}
+
+	private static void writeString(DataOutputStream out, String s) throws IOException {
+		out.writeBoolean(s != null);
+		if (s != null) {
+			out.writeUTF(s);
+		}
+	}
+
+	private static String readString(DataInputStream in) throws IOException {
+		return in.readBoolean() ? in.readUTF() : null;
+	}
+
+	public static final class Entry {
+		private final long lastDdlTime;
+		private final int version;
+		private final List<Column> columns;
+
+		private Entry(long lastDdlTime, int version, List<Column> columns) {
+			this.lastDdlTime = lastDdlTime;
+			this.version = version;
+			this.columns = columns;
+		}
+
+		public long getLastDdlTime() {
+			return lastDdlTime;
+		}
+
+		public int getVersion() {
+			return version;
+		}
+
+		public List<Column> getColumns() {
+			return columns;
+		}
+	}
+}
@@ -0,0 +1,79 @@
+/**
+ * Copyright 2018 David Arnold
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ **/
+
+package io.extr.kafka.connect.logminer;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import io.extr.kafka.connect.logminer.dialect.BaseLogMinerDialect;
+import io.extr.kafka.connect.logminer.model.LogMinerRow;
+import io.extr.kafka.connect.logminer.model.Table;
+import io.extr.kafka.connect.logminer.util.LongLongHashMap;
+
+/**
+ * Canonical {@link Table} instances for the rows of a session, found by the
+ * row's container and data object id so the poll loop neither allocates nor
+ * hashes names for a table it has seen. Rows without an object id, or whose
+ * object id now belongs to a differently named table, are looked up by name.
+ * Instances are not thread safe.
+ */
+public class TableRegistry {
+	private static final long MISSING = -1L;
+
+	private final LongLongHashMap indexByKey = new LongLongHashMap(64, MISSING);
+	private final Map<Table, Integer> indexByName = new HashMap<>();
+	private final List<Table> tables = new ArrayList<>();
+
+	public Table resolve(LogMinerRow row) {
+		long objectKey = row.getObjectKey();
+		boolean keyed = BaseLogMinerDialect.objectId(objectKey) != 0;
+		if (keyed) {
+			long index = indexByKey.get(objectKey);
+			if (index != MISSING) {
+				Table table = tables.get((int) index);
+				if (table.isNamed(row.getDatabaseName(), row.getOwnerName(), row.getTableName())) {
+					return table;
+				}
+			}
+		}
+
+		Table table = register(new Table(row.getDatabaseName(), row.getOwnerName(), row.getTableName()));
+		if (keyed) {
+			indexByKey.put(objectKey, indexByName.get(table));
+		}
+		return table;
+	}
+
+	/**
+	 * @return the canonical instance of the table, registering it if new
+	 */
+	public Table register(Table table) {
+		Integer index = indexByName.get(table);
+		if (index == null) {
+			index = tables.size();
+			tables.add(table);
+			indexByName.put(table, index);
+		}
+		return tables.get(index);
+	}
+
+	public int size() {
+		return tables.size();
+	}
+}
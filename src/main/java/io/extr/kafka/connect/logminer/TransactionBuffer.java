@@ -0,0 +1,403 @@
+/**
+ * Copyright 2018 David Arnold
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ **/
+
+package io.extr.kafka.connect.logminer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.extr.kafka.connect.logminer.model.LogMinerRow;
+import io.extr.kafka.connect.logminer.util.MappedSegmentFile;
+
+/**
+ * Buffers the changes of open transactions when mining without
+ * COMMITTED_DATA_ONLY. Rows are held by transaction id until the transaction
+ * commits, when they are released in redo order stamped with the commit SCN,
+ * or rolls back, when they are discarded. Once the rows of a single
+ * transaction occupy more than the spill threshold they are moved to
+ * memory-mapped segment files, to which its later rows are appended and from
+ * which they are streamed back on commit. Only the fetcher thread uses the
+ * buffer; the size gauges may be read from any thread.
+ */
+public class TransactionBuffer implements Closeable {
+	private static final Logger LOGGER = LoggerFactory.getLogger(TransactionBuffer.class);
+
+	/* Rough per-row heap cost beyond its strings: row object, fields, list slot */
+	private static final long ROW_OVERHEAD_BYTES = 96L;
+	private static final int SPILL_SEGMENT_SIZE = 16 * 1024 * 1024;
+	private static final String SPILL_FILE_PREFIX = "logminer-txn-";
+	private static final long NULL_TIMESTAMP = Long.MIN_VALUE;
+
+	private final Map<Long, Transaction> transactions = new HashMap<>();
+	private final long maxBytes;
+	private final long spillThresholdBytes;
+	private final Path spillDirectory;
+	private final LogMinerMetrics metrics;
+	private final RecordBuffer record = new RecordBuffer();
+	private final DataOutputStream recordOutput = new DataOutputStream(record);
+
+	private volatile int openTransactions;
+	private volatile long bufferedRows;
+	private volatile long bufferedBytes;
+	private volatile long spilledBytes;
+
+	/**
+	 * @param maxBytes            estimated heap the buffered rows may occupy
+	 * @param spillThresholdBytes estimated heap a single transaction may occupy
+	 *                            before its rows are spilled to disk
+	 * @param spillDirectory      directory for spill segment files
+	 * @param metrics             session metrics
+	 */
+	public TransactionBuffer(long maxBytes, long spillThresholdBytes, Path spillDirectory, LogMinerMetrics metrics) {
+		this.maxBytes = maxBytes;
+		this.spillThresholdBytes = spillThresholdBytes;
+		this.spillDirectory = spillDirectory;
+		this.metrics = metrics;
+	}
+
+	/**
+	 * Note the start of a transaction
+	 * 
+	 * @param xid transaction id
+	 * @param scn SCN of the transaction start
+	 */
+	public void start(long xid, long scn) {
+		getOrCreate(xid, scn);
+	}
+
+	/**
+	 * Buffer a change of an open transaction; a transaction whose start was not
+	 * mined is opened at the SCN of its first change
+	 * 
+	 * @param xid transaction id
+	 * @param row mined change
+	 * @throws IOException if the row cannot be written to the spill file
+	 */
+	public void add(long xid, LogMinerRow row) throws IOException {
+		Transaction transaction = getOrCreate(xid, row.getSystemChangeNumber());
+		transaction.count++;
+		bufferedRows++;
+
+		if (transaction.spill != null) {
+			spill(transaction, row);
+			return;
+		}
+
+		long bytes = estimateSize(row);
+		transaction.rows.add(row);
+		transaction.bytes += bytes;
+		bufferedBytes += bytes;
+		if (transaction.bytes > spillThresholdBytes) {
+			spill(transaction);
+		}
+	}
+
+	/**
+	 * Release the changes of a committed transaction. Each row is stamped with
+	 * the commit SCN and with the SCN from which mining must restart so that no
+	 * other open transaction loses changes: the start of the oldest transaction
+	 * still open, or the commit SCN when there is none.
+	 * 
+	 * @param xid       transaction id
+	 * @param commitSCN SCN of the commit
+	 * @return the transaction's changes in redo order, to be closed once read
+	 */
+	public CommittedTransaction commit(long xid, long commitSCN) {
+		Transaction transaction = remove(xid);
+		if (transaction == null) {
+			return new CommittedTransaction(null, commitSCN, commitSCN);
+		}
+
+		long restartSCN = commitSCN;
+		for (Transaction open : transactions.values()) {
+			restartSCN = Math.min(restartSCN, open.startSCN);
+		}
+		return new CommittedTransaction(transaction, commitSCN, restartSCN);
+	}
+
+	/**
+	 * Discard the changes of a rolled back transaction
+	 * 
+	 * @param xid transaction id
+	 * @return number of changes discarded
+	 */
+	public long rollback(long xid) {
+		Transaction transaction = remove(xid);
+		if (transaction == null) {
+			return 0L;
+		}
+		transaction.release();
+		return transaction.count;
+	}
+
+	public boolean isOverLimit() {
+		return bufferedBytes > maxBytes;
+	}
+
+	public long getMaxBytes() {
+		return maxBytes;
+	}
+
+	public int getOpenTransactions() {
+		return openTransactions;
+	}
+
+	public long getBufferedRows() {
+		return bufferedRows;
+	}
+
+	/**
+	 * @return estimated heap occupied by rows not spilled to disk
+	 */
+	public long getBufferedBytes() {
+		return bufferedBytes;
+	}
+
+	public long getSpilledBytes() {
+		return spilledBytes;
+	}
+
+	/**
+	 * Discard all open transactions and delete their spill files
+	 */
+	@Override
+	public void close() {
+		for (Transaction transaction : transactions.values()) {
+			transaction.release();
+		}
+		transactions.clear();
+		openTransactions = 0;
+		bufferedRows = 0L;
+		bufferedBytes = 0L;
+		spilledBytes = 0L;
+	}
+
+	private Transaction getOrCreate(long xid, long scn) {
+		Transaction transaction = transactions.get(xid);
+		if (transaction == null) {
+			transaction = new Transaction(scn);
+			transactions.put(xid, transaction);
+			openTransactions = transactions.size();
+		}
+		return transaction;
+	}
+
+	private Transaction remove(long xid) {
+		Transaction transaction = transactions.remove(xid);
+		if (transaction != null) {
+			openTransactions = transactions.size();
+			bufferedRows -= transaction.count;
+			bufferedBytes -= transaction.bytes;
+			if (transaction.spill != null) {
+				spilledBytes -= transaction.spill.getBytes();
+			}
+		}
+		return transaction;
+	}
+
+	private void spill(Transaction transaction) throws IOException {
+		LOGGER.debug("Spilling transaction of {} rows using an estimated {} bytes to {}", transaction.count,
+				transaction.bytes, spillDirectory);
+		transaction.spill = new MappedSegmentFile(spillDirectory, SPILL_FILE_PREFIX, SPILL_SEGMENT_SIZE);
+		for (LogMinerRow row : transaction.rows) {
+			spill(transaction, row);
+		}
+		bufferedBytes -= transaction.bytes;
+		transaction.bytes = 0L;
+		transaction.rows = Collections.emptyList();
+		metrics.transactionSpilled();
+	}
+
+	private void spill(Transaction transaction, LogMinerRow row) throws IOException {
+		long started = System.nanoTime();
+		record.reset();
+		recordOutput.writeLong(row.getSystemChangeNumber());
+		recordOutput.writeLong(row.getObjectKey());
+		Timestamp timestamp = row.getTimestamp();
+		recordOutput.writeLong(timestamp == null ? NULL_TIMESTAMP : timestamp.getTime());
+		recordOutput.writeInt(timestamp == null ? 0 : timestamp.getNanos());
+		writeString(row.getRowId());
+		writeString(row.getRedoRecordId());
+		recordOutput.writeLong(row.getSubStatement());
+		writeString(row.getDatabaseName());
+		writeString(row.getOwnerName());
+		writeString(row.getTableName());
+		writeString(row.getOperation());
+		writeString(row.getSqlRedo());
+		recordOutput.writeBoolean(row.isTruncated());
+
+		long before = transaction.spill.getBytes();
+		transaction.spill.append(record.array(), record.size());
+		long written = transaction.spill.getBytes() - before;
+		spilledBytes += written;
+		metrics.spillWritten(written, System.nanoTime() - started);
+	}
+
+	private void writeString(String s) throws IOException {
+		if (s == null) {
+			recordOutput.writeInt(-1);
+		} else {
+			byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+			recordOutput.writeInt(bytes.length);
+			recordOutput.write(bytes);
+		}
+	}
+
+	private static LogMinerRow readRow(ByteBuffer record) {
+		LogMinerRow row = new LogMinerRow();
+		row.setSystemChangeNumber(record.getLong());
+		row.setObjectKey(record.getLong());
+		long time = record.getLong();
+		int nanos = record.getInt();
+		if (time != NULL_TIMESTAMP) {
+			Timestamp timestamp = new Timestamp(time);
+			timestamp.setNanos(nanos);
+			row.setTimestamp(timestamp);
+		}
+		row.setRowId(readString(record));
+		row.setRedoRecordId(readString(record));
+		row.setSubStatement(record.getLong());
+		row.setDatabaseName(readString(record));
+		row.setOwnerName(readString(record));
+		row.setTableName(readString(record));
+		row.setOperation(readString(record));
+		row.setSqlRedo(readString(record));
+		row.setTruncated(record.get() != 0);
+		return row;
+	}
+
+	private static String readString(ByteBuffer record) {
+		int length = record.getInt();
+		if (length < 0) {
+			return null;
+		}
+		byte[] bytes = new byte[length];
+		record.get(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	private static long estimateSize(LogMinerRow row) {
+		return ROW_OVERHEAD_BYTES + 2L * (length(row.getSqlRedo()) + length(row.getRowId())
+				+ length(row.getRedoRecordId()) + length(row.getOwnerName()) + length(row.getTableName())
+				+ length(row.getOperation()));
+	}
+
+	private static int length(String s) {
+		return s == null ? 0 : s.length();
+	}
+
+	/**
+	 * The changes of a committed transaction, read from the heap or streamed from
+	 * its spill file; closing it deletes the spill file
+	 */
+	public final class CommittedTransaction implements Iterable<LogMinerRow>, Closeable {
+		private final Transaction transaction;
+		private final long commitSCN;
+		private final long restartSCN;
+
+		private CommittedTransaction(Transaction transaction, long commitSCN, long restartSCN) {
+			this.transaction = transaction;
+			this.commitSCN = commitSCN;
+			this.restartSCN = restartSCN;
+		}
+
+		public long getRows() {
+			return transaction == null ? 0L : transaction.count;
+		}
+
+		public boolean isSpilled() {
+			return transaction != null && transaction.spill != null;
+		}
+
+		@Override
+		public Iterator<LogMinerRow> iterator() {
+			if (transaction == null) {
+				return Collections.emptyIterator();
+			}
+			final Iterator<LogMinerRow> heap = transaction.rows.iterator();
+			final Iterator<ByteBuffer> spilled = transaction.spill == null ? Collections.emptyIterator()
+					: transaction.spill.records();
+			return new Iterator<LogMinerRow>() {
+				@Override
+				public boolean hasNext() {
+					return heap.hasNext() || spilled.hasNext();
+				}
+
+				@Override
+				public LogMinerRow next() {
+					LogMinerRow row;
+					if (heap.hasNext()) {
+						row = heap.next();
+					} else {
+						long started = System.nanoTime();
+						row = readRow(spilled.next());
+						metrics.spillRead(System.nanoTime() - started);
+					}
+					row.setCommitSystemChangeNumber(commitSCN);
+					row.setRestartSystemChangeNumber(restartSCN);
+					return row;
+				}
+			};
+		}
+
+		@Override
+		public void close() {
+			if (transaction != null) {
+				transaction.release();
+			}
+		}
+	}
+
+	private static final class Transaction {
+		private final long startSCN;
+		private List<LogMinerRow> rows = new ArrayList<>();
+		private long count;
+		private long bytes;
+		private MappedSegmentFile spill;
+
+		private Transaction(long startSCN) {
+			this.startSCN = startSCN;
+		}
+
+		private void release() {
+			if (spill != null) {
+				spill.close();
+			}
+		}
+	}
+
+	/* Exposes the backing array so records are appended without a copy */
+	private static final class RecordBuffer extends ByteArrayOutputStream {
+		private byte[] array() {
+			return buf;
+		}
+	}
+}
@@ -0,0 +1,113 @@
+/**
+ * Copyright 2018 David Arnold
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ **/
+
+package io.extr.kafka.connect.logminer;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.extr.kafka.connect.logminer.dialect.BaseLogMinerDialect;
+
+/**
+ * Mines redo in bounded STARTSCN/ENDSCN windows rather than with
+ * CONTINUOUS_MINE. Each window rolls the LogMiner session over to the range
+ * with {@link MiningSessionControl}, and the mining query is executed once; the
+ * next window starts at the SCN following the end of the previous one. When
+ * mining catches up with the database current SCN, the source waits before
+ * opening the next window.
+ * <p>
+ * Windows mine uncommitted data, which the connector buffers by transaction:
+ * a COMMITTED_DATA_ONLY session per window would not return the changes a
+ * transaction made before the window it commits in, so the configuration
+ * rejects that combination.
+ */
+public class WindowedMiningCursorSource implements MiningCursorSource {
+	private static final Logger LOGGER = LoggerFactory.getLogger(WindowedMiningCursorSource.class);
+
+	private final PreparedStatement miningQuery;
+	private final MiningSessionControl sessionControl;
+	private final MiningWindowController windowController;
+	private final LogMinerMetrics metrics;
+	private final long pollInterval;
+	private final CountDownLatch stopLatch;
+
+	private long windowStart;
+	private long windowEnd;
+	private long windowStarted;
+	private volatile long completedSCN;
+
+	public WindowedMiningCursorSource(Connection connection, BaseLogMinerDialect dialect,
+			PreparedStatement miningQuery, long startSCN, MiningWindowController windowController,
+			LogMinerMetrics metrics, long pollInterval, boolean committedDataOnly) throws SQLException {
+		this.miningQuery = miningQuery;
+		this.sessionControl = new MiningSessionControl(connection, dialect, metrics, committedDataOnly);
+		this.windowController = windowController;
+		this.metrics = metrics;
+		this.pollInterval = pollInterval;
+		this.stopLatch = new CountDownLatch(1);
+		this.windowStart = startSCN;
+	}
+
+	@Override
+	public ResultSet open() throws SQLException, InterruptedException {
+		while (stopLatch.getCount() > 0) {
+			long currentSCN = sessionControl.getCurrentSCN();
+			if (windowStart <= currentSCN) {
+				windowEnd = windowController.getEnd(windowStart, currentSCN);
+				sessionControl.rollover(windowStart, windowEnd);
+				windowStarted = System.currentTimeMillis();
+				LOGGER.debug("Mining query execution start for SCN window {} - {}", windowStart, windowEnd);
+				return miningQuery.executeQuery();
+			}
+
+			LOGGER.trace("Mining caught up at SCN {}, waiting {} ms", currentSCN, pollInterval);
+			stopLatch.await(pollInterval, TimeUnit.MILLISECONDS);
+		}
+		return null;
+	}
+
+	@Override
+	public void completed() throws SQLException {
+		long elapsed = System.currentTimeMillis() - windowStarted;
+		windowController.completed(windowEnd - windowStart + 1, elapsed);
+		metrics.miningWindowCompleted(windowEnd, windowController.getSize(), elapsed);
+		LOGGER.debug("Mined SCN window {} - {} in {} ms", windowStart, windowEnd, elapsed);
+		windowStart = windowEnd + 1;
+		completedSCN = windowEnd;
+	}
+
+	@Override
+	public long getCompletedSCN() {
+		return completedSCN;
+	}
+
+	@Override
+	public void stop() {
+		stopLatch.countDown();
+	}
+
+	@Override
+	public void close() throws SQLException {
+		sessionControl.close();
+	}
+}
@@ -27,14 +27,30 @@ import java.nio.file.FileSystems;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Properties;
+import java.util.Set;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import io.extr.kafka.connect.logminer.LogMinerSourceConnectorConstants;
+import io.extr.kafka.connect.logminer.model.Column;
+import io.extr.kafka.connect.logminer.model.Table;
+
 public abstract class BaseLogMinerDialect implements LogMinerDialect {
 	private static final Logger LOGGER = LoggerFactory.getLogger(BaseLogMinerDialect.class);
 
@@ -43,6 +59,8 @@ public abstract class BaseLogMinerDialect implements LogMinerDialect {
 
 	private static Map<Statement, String> STATEMENTS;
 
+	private static final long[] NO_OBJECT_KEYS = new long[0];
+
 	static {
 		STATEMENTS = new HashMap<Statement, String>();
 		try {
@@ -102,4 +120,175 @@ public abstract class BaseLogMinerDialect implements LogMinerDialect {
 	public String getStatement(Statement statement) {
 		return STATEMENTS.get(statement);
 	}
+
+	/**
+	 * Combine a container id and object id into the single key used to identify
+	 * a segment in the mining filter; V$LOGMNR_CONTENTS reports these as
+	 * SRC_CON_ID and DATA_OBJ#
+	 * 
+	 * @param containerId container id, 0 outside a multitenant database
+	 * @param objectId    table, partition or subpartition object id
+	 * @return object key
+	 */
+	public static long objectKey(long containerId, long objectId) {
+		return (containerId << 32) | (objectId & 0xFFFFFFFFL);
+	}
+
+	public static long containerId(long objectKey) {
+		return objectKey >>> 32;
+	}
+
+	public static long objectId(long objectKey) {
+		return objectKey & 0xFFFFFFFFL;
+	}
+
+	/**
+	 * Resolve the object keys of the tables and all of their partitions and
+	 * subpartitions, with one query per owner. Nothing is cached: object ids
+	 * change on truncate, move and partition maintenance, so each session
+	 * resolves them afresh when it starts.
+	 * 
+	 * @param connection database connection
+	 * @param tables     tables to resolve
+	 * @return object keys by table; empty for tables that no longer exist
+	 * @throws SQLException
+	 */
+	@Override
+	public Map<Table, long[]> getObjectKeys(Connection connection, Collection<Table> tables) throws SQLException {
+		Set<String> owners = new LinkedHashSet<>();
+		for (Table table : tables) {
+			owners.add(table.getOwnerName());
+		}
+
+		Map<Table, List<Long>> resolved = new HashMap<>();
+		String query = getStatement(Statement.OBJECT_IDS);
+		LOGGER.trace("Executing object ids query: {}", query);
+		try (PreparedStatement p = connection.prepareStatement(query)) {
+			for (String owner : owners) {
+				p.setString(1, owner);
+				try (ResultSet rs = p.executeQuery()) {
+					while (rs.next()) {
+						Table table = new Table(rs.getString(1), rs.getString(3), rs.getString(4));
+						resolved.computeIfAbsent(table, t -> new ArrayList<>())
+								.add(objectKey(rs.getLong(2), rs.getLong(5)));
+					}
+				}
+			}
+		}
+		LOGGER.debug("Resolved object ids of {} tables for {} owners", resolved.size(), owners.size());
+
+		Map<Table, long[]> keys = new LinkedHashMap<>();
+		for (Table table : tables) {
+			List<Long> tableKeys = resolved.get(table);
+			if (tableKeys == null) {
+				LOGGER.warn("No object ids found for {}, its changes will not be mined", table.getQName());
+			}
+			keys.put(table,
+					tableKeys == null ? NO_OBJECT_KEYS : tableKeys.stream().mapToLong(Long::longValue).toArray());
+		}
+		return keys;
+	}
+
+	/**
+	 * Describe the columns of many tables at once, with one set-based dictionary
+	 * query per owner rather than one query per table
+	 * 
+	 * @param connection database connection
+	 * @param tables     tables to describe
+	 * @return columns in table order, by table; tables that no longer exist are
+	 *         left out
+	 * @throws SQLException
+	 */
+	@Override
+	public Map<Table, List<Column>> getColumns(Connection connection, Collection<Table> tables) throws SQLException {
+		Set<Table> wanted = new HashSet<>(tables);
+		Set<String> owners = new LinkedHashSet<>();
+		for (Table table : tables) {
+			owners.add(table.getOwnerName());
+		}
+
+		Map<Table, List<Column>> columns = new HashMap<>();
+		String query = getStatement(Statement.DICTIONARY_BULK);
+		LOGGER.trace("Executing bulk dictionary query: {}", query);
+		try (PreparedStatement p = connection.prepareStatement(query)) {
+			for (String owner : owners) {
+				p.setString(1, owner);
+				try (ResultSet rs = p.executeQuery()) {
+					Table table = null;
+					List<Column> tableColumns = null;
+					while (rs.next()) {
+						String databaseName = rs.getString(1);
+						String tableName = rs.getString(LogMinerSourceConnectorConstants.FIELD_TABLE_NAME);
+						/* Rows come grouped by table, so only a change of table needs a lookup */
+						if (table == null || !table.isNamed(databaseName, owner, tableName)) {
+							table = new Table(databaseName, owner, tableName);
+							tableColumns = wanted.contains(table)
+									? columns.computeIfAbsent(table, t -> new ArrayList<>())
+									: null;
+						}
+						if (tableColumns != null) {
+							tableColumns.add(readColumn(rs));
+						}
+					}
+				}
+			}
+		}
+		LOGGER.debug("Described {} of {} tables for {} owners", columns.size(), wanted.size(), owners.size());
+		return columns;
+	}
+
+	/**
+	 * Look up when the definition of each table last changed, with one query per
+	 * owner
+	 * 
+	 * @param connection database connection
+	 * @param tables     tables to look up
+	 * @return LAST_DDL_TIME as epoch milliseconds, by table; tables that no
+	 *         longer exist are left out
+	 * @throws SQLException
+	 */
+	@Override
+	public Map<Table, Long> getLastDdlTimes(Connection connection, Collection<Table> tables) throws SQLException {
+		Set<Table> wanted = new HashSet<>(tables);
+		Set<String> owners = new LinkedHashSet<>();
+		for (Table table : tables) {
+			owners.add(table.getOwnerName());
+		}
+
+		Map<Table, Long> lastDdlTimes = new HashMap<>();
+		String query = getStatement(Statement.LAST_DDL_TIMES);
+		LOGGER.trace("Executing last DDL times query: {}", query);
+		try (PreparedStatement p = connection.prepareStatement(query)) {
+			for (String owner : owners) {
+				p.setString(1, owner);
+				try (ResultSet rs = p.executeQuery()) {
+					while (rs.next()) {
+						Table table = new Table(rs.getString(1), rs.getString(2), rs.getString(3));
+						Timestamp lastDdlTime = rs.getTimestamp(4);
+						if (lastDdlTime != null && wanted.contains(table)) {
+							lastDdlTimes.put(table, lastDdlTime.getTime());
+						}
+					}
+				}
+			}
+		}
+		return lastDdlTimes;
+	}
+
+	/**
+	 * Read the column described by the current row of a dictionary query
+	 */
+	public static Column readColumn(ResultSet rs) throws SQLException {
+		String dataType = rs.getString(LogMinerSourceConnectorConstants.FIELD_DATA_TYPE);
+		if (dataType.contains(LogMinerSourceConnectorConstants.TYPE_TIMESTAMP)) {
+			dataType = LogMinerSourceConnectorConstants.TYPE_TIMESTAMP;
+		}
+		return new Column(rs.getString(LogMinerSourceConnectorConstants.FIELD_COLUMN_NAME),
+				"Y".equals(rs.getString(LogMinerSourceConnectorConstants.FIELD_NULLABLE)), dataType,
+				rs.getInt(LogMinerSourceConnectorConstants.FIELD_DATA_LENGTH),
+				rs.getInt(LogMinerSourceConnectorConstants.FIELD_DATA_SCALE),
+				rs.getInt(LogMinerSourceConnectorConstants.FIELD_DATA_PRECISION),
+				rs.getInt(LogMinerSourceConnectorConstants.FIELD_PK_COLUMN) == 1,
+				rs.getInt(LogMinerSourceConnectorConstants.FIELD_UQ_COLUMN) == 1);
+	}
 }
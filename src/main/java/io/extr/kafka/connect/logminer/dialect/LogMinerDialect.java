@@ -18,16 +18,33 @@ package io.extr.kafka.connect.logminer.dialect;
 
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
+import io.extr.kafka.connect.logminer.model.Column;
 import io.extr.kafka.connect.logminer.model.Table;
 
 public interface LogMinerDialect {
 	public List<Table> getTables(Connection connection) throws SQLException;
+
+	public Map<Table, long[]> getObjectKeys(Connection connection, Collection<Table> tables) throws SQLException;
+
+	public Map<Table, List<Column>> getColumns(Connection connection, Collection<Table> tables) throws SQLException;
+
+	public Map<Table, Long> getLastDdlTimes(Connection connection, Collection<Table> tables) throws SQLException;
 	
 	public enum Statement {
 		START_MINING("start"), STOP_MINING("stop"), CONTENTS("contents"), DICTIONARY("dictionary"), CURRENT_SCN(
-				"current.scn"), LATEST_SCN("latest.scn"), EARLIEST_SCN("earliest.scn"), TABLES("tables");
+				"current.scn"), LATEST_SCN("latest.scn"), EARLIEST_SCN("earliest.scn"), TABLES("tables"), LOG_FILES(
+						"log.files"), ADD_LOGFILE("add.logfile"), REMOVE_LOGFILE(
+								"remove.logfile"), START_MINING_WINDOW("start.window"), OBJECT_IDS(
+										"object.ids"), START_MINING_UNCOMMITTED(
+												"start.uncommitted"), START_MINING_WINDOW_UNCOMMITTED(
+														"start.window.uncommitted"), CONTENTS_UNCOMMITTED(
+																"contents.uncommitted"), DICTIONARY_BULK(
+																		"dictionary.bulk"), LAST_DDL_TIMES(
+																				"last.ddl.times");
 
 		private final String property;
 
@@ -57,6 +74,26 @@ public interface LogMinerDialect {
 				return EARLIEST_SCN;
 			case "tables":
 				return TABLES;
+			case "log.files":
+				return LOG_FILES;
+			case "add.logfile":
+				return ADD_LOGFILE;
+			case "remove.logfile":
+				return REMOVE_LOGFILE;
+			case "start.window":
+				return START_MINING_WINDOW;
+			case "object.ids":
+				return OBJECT_IDS;
+			case "start.uncommitted":
+				return START_MINING_UNCOMMITTED;
+			case "start.window.uncommitted":
+				return START_MINING_WINDOW_UNCOMMITTED;
+			case "contents.uncommitted":
+				return CONTENTS_UNCOMMITTED;
+			case "dictionary.bulk":
+				return DICTIONARY_BULK;
+			case "last.ddl.times":
+				return LAST_DDL_TIMES;
 			default:
 				throw new IllegalArgumentException("Invalid SQL statement property name \"" + property + "\"");
 			}
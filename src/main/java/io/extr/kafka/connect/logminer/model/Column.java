@@ -0,0 +1,104 @@
+/**
+ * Copyright 2018 David Arnold
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ **/
+
+
+package io.extr.kafka.connect.logminer.model;
+
+import java.util.Objects;
+
+/**
+ * Dictionary description of a table column, as read from DBA_TAB_COLS with
+ * its primary and unique key membership
+ */
+public class Column {
+	private final String name;
+	private final boolean nullable;
+	private final String dataType;
+	private final int dataLength;
+	private final int dataScale;
+	private final int dataPrecision;
+	private final boolean primaryKey;
+	private final boolean uniqueKey;
+
+	public Column(String name, boolean nullable, String dataType, int dataLength, int dataScale, int dataPrecision,
+			boolean primaryKey, boolean uniqueKey) {
+		this.name = name;
+		this.nullable = nullable;
+		this.dataType = dataType;
+		this.dataLength = dataLength;
+		this.dataScale = dataScale;
+		this.dataPrecision = dataPrecision;
+		this.primaryKey = primaryKey;
+		this.uniqueKey = uniqueKey;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public boolean isNullable() {
+		return nullable;
+	}
+
+	public String getDataType() {
+		return dataType;
+	}
+
+	public int getDataLength() {
+		return dataLength;
+	}
+
+	public int getDataScale() {
+		return dataScale;
+	}
+
+	public int getDataPrecision() {
+		return dataPrecision;
+	}
+
+	public boolean isPrimaryKey() {
+		return primaryKey;
+	}
+
+	public boolean isUniqueKey() {
+		return uniqueKey;
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(name, dataType, dataLength, dataScale, dataPrecision);
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (obj == null)
+			return false;
+		if (getClass() != obj.getClass())
+			return false;
+		Column other = (Column) obj;
+		return Objects.equals(name, other.name) && nullable == other.nullable
+				&& Objects.equals(dataType, other.dataType) && dataLength == other.dataLength
+				&& dataScale == other.dataScale && dataPrecision == other.dataPrecision
+				&& primaryKey == other.primaryKey && uniqueKey == other.uniqueKey;
+	}
+
+	@Override
+	public String toString() {
+		return "Column [name=" + name + ", dataType=" + dataType + ", nullable=" + nullable + "]";
+	}
+}
@@ -1,23 +1,26 @@
 package io.extr.kafka.connect.logminer.model;
 
-import java.util.Collections;
 import java.util.Map;
 
 import org.apache.kafka.connect.data.Schema;
 import org.apache.kafka.connect.data.Struct;
-import org.apache.kafka.connect.data.Timestamp;
-
-import io.extr.kafka.connect.logminer.LogMinerSourceConnectorConstants;
 
 public class LogMinerEvent {
+	private final Table table;
 	private final Schema schema;
 	private final Struct struct;
+	private Offset offset;
 
-	public LogMinerEvent(Schema schema, Struct struct) {
+	public LogMinerEvent(Table table, Schema schema, Struct struct) {
+		this.table = table;
 		this.schema = schema;
 		this.struct = struct;
 	}
 
+	public Table getTable() {
+		return this.table;
+	}
+
 	public Schema getSchema() {
 		return this.schema;
 	}
@@ -26,17 +29,27 @@ public class LogMinerEvent {
 		return this.struct;
 	}
 
+	/**
+	 * @param offset
+	 *            position from which mining resumes after this event
+	 */
+	public void setOffset(Offset offset) {
+		this.offset = offset;
+	}
+
 	public Map<String, Object> getOffset() {
-		return new Offset(struct.getInt64(LogMinerSourceConnectorConstants.FIELD_SCN),
-				struct.getInt64(LogMinerSourceConnectorConstants.FIELD_COMMIT_SCN),
-				struct.getString(LogMinerSourceConnectorConstants.FIELD_ROW_ID),
-				Timestamp.toLogical(struct.schema().field(LogMinerSourceConnectorConstants.FIELD_TIMESTAMP).schema(),
-						((java.sql.Timestamp) struct.get(LogMinerSourceConnectorConstants.FIELD_TIMESTAMP)).getTime()))
-								.toMap();
+		return offset.toMap();
+	}
+
+	/**
+	 * @return SCN from which mining resumes after this event
+	 */
+	public long getOffsetSystemChangeNumber() {
+		return offset.getSystemChangeNumber();
 	}
 
 	public Map<String, String> getPartition() {
-		return Collections.singletonMap(LogMinerSourceConnectorConstants.TABLE_NAME_KEY, schema.name());
+		return table.getPartition();
 	}
 
 	@Override
@@ -0,0 +1,184 @@
+/**
+ * Copyright 2018 David Arnold
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ **/
+
+package io.extr.kafka.connect.logminer.model;
+
+import java.sql.Timestamp;
+
+/**
+ * A single V$LOGMNR_CONTENTS row, with any continuation rows already assembled
+ * into the redo SQL, as handed from the fetcher thread to the poll thread
+ */
+public class LogMinerRow {
+	private long systemChangeNumber;
+	private long commitSystemChangeNumber;
+	private long restartSystemChangeNumber;
+	private long objectKey;
+	private Table table;
+	private String rowId;
+	private String redoRecordId;
+	private long subStatement;
+	private String databaseName;
+	private String ownerName;
+	private String tableName;
+	private Timestamp timestamp;
+	private String operation;
+	private String sqlRedo;
+	private boolean truncated;
+
+	public long getSystemChangeNumber() {
+		return systemChangeNumber;
+	}
+
+	public void setSystemChangeNumber(long systemChangeNumber) {
+		this.systemChangeNumber = systemChangeNumber;
+	}
+
+	public long getCommitSystemChangeNumber() {
+		return commitSystemChangeNumber;
+	}
+
+	public void setCommitSystemChangeNumber(long commitSystemChangeNumber) {
+		this.commitSystemChangeNumber = commitSystemChangeNumber;
+	}
+
+	/**
+	 * @return SCN from which mining must restart to deliver this row's successors,
+	 *         or 0 when that is the row's own SCN
+	 */
+	public long getRestartSystemChangeNumber() {
+		return restartSystemChangeNumber;
+	}
+
+	public void setRestartSystemChangeNumber(long restartSystemChangeNumber) {
+		this.restartSystemChangeNumber = restartSystemChangeNumber;
+	}
+
+	public long getObjectKey() {
+		return objectKey;
+	}
+
+	public void setObjectKey(long objectKey) {
+		this.objectKey = objectKey;
+	}
+
+	/**
+	 * @return the canonical table of the row, once resolved by the poll thread
+	 */
+	public Table getTable() {
+		return table;
+	}
+
+	public void setTable(Table table) {
+		this.table = table;
+	}
+
+	public String getRowId() {
+		return rowId;
+	}
+
+	public void setRowId(String rowId) {
+		this.rowId = rowId;
+	}
+
+	/**
+	 * @return RS_ID of the redo record holding the change, without padding
+	 */
+	public String getRedoRecordId() {
+		return redoRecordId;
+	}
+
+	public void setRedoRecordId(String redoRecordId) {
+		this.redoRecordId = redoRecordId;
+	}
+
+	/**
+	 * @return SSN, the number of the change within its redo record
+	 */
+	public long getSubStatement() {
+		return subStatement;
+	}
+
+	public void setSubStatement(long subStatement) {
+		this.subStatement = subStatement;
+	}
+
+	public String getDatabaseName() {
+		return databaseName;
+	}
+
+	public void setDatabaseName(String databaseName) {
+		this.databaseName = databaseName;
+	}
+
+	public String getOwnerName() {
+		return ownerName;
+	}
+
+	public void setOwnerName(String ownerName) {
+		this.ownerName = ownerName;
+	}
+
+	public String getTableName() {
+		return tableName;
+	}
+
+	public void setTableName(String tableName) {
+		this.tableName = tableName;
+	}
+
+	public Timestamp getTimestamp() {
+		return timestamp;
+	}
+
+	public void setTimestamp(Timestamp timestamp) {
+		this.timestamp = timestamp;
+	}
+
+	public String getOperation() {
+		return operation;
+	}
+
+	public void setOperation(String operation) {
+		this.operation = operation;
+	}
+
+	public String getSqlRedo() {
+		return sqlRedo;
+	}
+
+	public void setSqlRedo(String sqlRedo) {
+		this.sqlRedo = sqlRedo;
+	}
+
+	/**
+	 * @return whether the redo SQL was cut short at the maximum statement size
+	 */
+	public boolean isTruncated() {
+		return truncated;
+	}
+
+	public void setTruncated(boolean truncated) {
+		this.truncated = truncated;
+	}
+
+	@Override
+	public String toString() {
+		return "LogMinerRow [systemChangeNumber=" + systemChangeNumber + ", commitSystemChangeNumber="
+				+ commitSystemChangeNumber + ", databaseName=" + databaseName + ", ownerName=" + ownerName
+				+ ", tableName=" + tableName + ", operation=" + operation + "]";
+	}
+}
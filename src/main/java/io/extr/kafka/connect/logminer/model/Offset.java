@@ -6,79 +6,159 @@ import java.util.Map;
 
 import io.extr.kafka.connect.logminer.LogMinerSourceConnectorConstants;
 
+/**
+ * Source offset of an event. The timestamp is held, and stored in the offset
+ * map, as epoch milliseconds; the map is built once and then shared.
+ * <p>
+ * Besides the SCN mining resumes from, the offset records the exact position
+ * of the event as its commit SCN, redo record id (RS_ID) and sub-statement
+ * number (SSN), so that changes already delivered can be recognised when they
+ * are mined again after a restart. RS_IDs are only ordered within one redo
+ * thread, so this recognition assumes a single-instance database; on RAC, a
+ * resumed task may skip or repeat changes of the commit SCN it stopped at
+ * that other instances redid.
+ */
 public class Offset {
-	private Long systemChangeNumber;
-	private Long commitSystemChangeNumber;
-	private String rowId;
-	private Date timestamp;
+	private final Long systemChangeNumber;
+	private final Long commitSystemChangeNumber;
+	private final String rowId;
+	private final Long timestamp;
+	private final String redoRecordId;
+	private final Long subStatement;
+	private Map<String, Object> map;
+
+	public static final Offset DEFAULT_OFFSET = new Offset(0L, 0L, null, (Long) null);
+
+	public Offset(Long systemChangeNumber, Long commitSystemChangeNumber, String rowId, Long timestamp) {
+		this(systemChangeNumber, commitSystemChangeNumber, rowId, timestamp, null, null);
+	}
 
-	public static final Offset DEFAULT_OFFSET = new Offset(0L, 0L, null, null);
-	
-	public Offset(Long systemChangeNumber, Long commitSystemChangeNumber, String rowId, Date timestamp) {
-		super();
+	public Offset(Long systemChangeNumber, Long commitSystemChangeNumber, String rowId, Long timestamp,
+			String redoRecordId, Long subStatement) {
 		this.systemChangeNumber = systemChangeNumber;
 		this.commitSystemChangeNumber = commitSystemChangeNumber;
 		this.rowId = rowId;
 		this.timestamp = timestamp;
+		this.redoRecordId = redoRecordId;
+		this.subStatement = subStatement;
 	}
 
-	public Long getSystemChangeNumber() {
-		return systemChangeNumber;
+	public Offset(Long systemChangeNumber, Long commitSystemChangeNumber, String rowId, Date timestamp) {
+		this(systemChangeNumber, commitSystemChangeNumber, rowId, timestamp == null ? null : timestamp.getTime());
 	}
 
-	public void setSystemChangeNumber(Long systemChangeNumber) {
-		this.systemChangeNumber = systemChangeNumber;
+	public Long getSystemChangeNumber() {
+		return systemChangeNumber;
 	}
 
 	public Long getCommitSystemChangeNumber() {
 		return commitSystemChangeNumber;
 	}
 
-	public void setCommitSystemChangeNumber(Long commitSystemChangeNumber) {
-		this.commitSystemChangeNumber = commitSystemChangeNumber;
-	}
-
 	public String getRowId() {
 		return rowId;
 	}
 
-	public void setRowId(String rowId) {
-		this.rowId = rowId;
+	public Date getTimestamp() {
+		return timestamp == null ? null : new Date(timestamp);
 	}
 
-	public Date getTimestamp() {
-		return timestamp;
+	public String getRedoRecordId() {
+		return redoRecordId;
 	}
 
-	public void setTimestamp(Date timestamp) {
-		this.timestamp = timestamp;
+	public Long getSubStatement() {
+		return subStatement;
 	}
 
-	public Map<String, Object> toMap() {
-		Map<String, Object> map = new HashMap<>();
+	/**
+	 * @return whether the change at the given position was delivered no later
+	 *         than this offset's event; always false for offsets stored without
+	 *         a redo position
+	 */
+	public boolean covers(long commitSystemChangeNumber, String redoRecordId, long subStatement) {
+		if (this.redoRecordId == null || redoRecordId == null || this.commitSystemChangeNumber == null) {
+			return false;
+		}
+		if (commitSystemChangeNumber != this.commitSystemChangeNumber) {
+			return commitSystemChangeNumber < this.commitSystemChangeNumber;
+		}
+		int c = compareRedoRecordIds(redoRecordId, this.redoRecordId);
+		if (c != 0) {
+			return c < 0;
+		}
+		return this.subStatement != null && subStatement <= this.subStatement;
+	}
 
-		map.put(LogMinerSourceConnectorConstants.FIELD_SCN, this.systemChangeNumber);
-		map.put(LogMinerSourceConnectorConstants.FIELD_COMMIT_SCN, this.commitSystemChangeNumber);
-		map.put(LogMinerSourceConnectorConstants.FIELD_ROW_ID, this.rowId);
-		map.put(LogMinerSourceConnectorConstants.FIELD_TIMESTAMP, this.timestamp);
+	/**
+	 * Compare two RS_IDs, such as 0x00005c.00000142.0010, part by part. Each hex
+	 * part is zero padded to a minimum width, so a longer part is the greater
+	 * one and parts of equal length compare as strings. The first part is the
+	 * log sequence number of a redo thread, so RS_IDs from different RAC
+	 * instances do not compare meaningfully.
+	 */
+	static int compareRedoRecordIds(String a, String b) {
+		int i = 0;
+		int j = 0;
+		while (i < a.length() && j < b.length()) {
+			int endA = a.indexOf('.', i);
+			int endB = b.indexOf('.', j);
+			endA = endA < 0 ? a.length() : endA;
+			endB = endB < 0 ? b.length() : endB;
+			if (endA - i != endB - j) {
+				return (endA - i) - (endB - j);
+			}
+			for (; i < endA; i++, j++) {
+				int c = Character.toLowerCase(a.charAt(i)) - Character.toLowerCase(b.charAt(j));
+				if (c != 0) {
+					return c;
+				}
+			}
+			i++;
+			j++;
+		}
+		return (a.length() - i) - (b.length() - j);
+	}
 
+	public Map<String, Object> toMap() {
+		if (map == null) {
+			Map<String, Object> offsetMap = new HashMap<>(8);
+			offsetMap.put(LogMinerSourceConnectorConstants.FIELD_SCN, this.systemChangeNumber);
+			offsetMap.put(LogMinerSourceConnectorConstants.FIELD_COMMIT_SCN, this.commitSystemChangeNumber);
+			offsetMap.put(LogMinerSourceConnectorConstants.FIELD_ROW_ID, this.rowId);
+			offsetMap.put(LogMinerSourceConnectorConstants.FIELD_TIMESTAMP, this.timestamp);
+			offsetMap.put(LogMinerSourceConnectorConstants.FIELD_RS_ID, this.redoRecordId);
+			offsetMap.put(LogMinerSourceConnectorConstants.FIELD_SSN, this.subStatement);
+			map = offsetMap;
+		}
 		return map;
 	}
 
+	/**
+	 * @param map
+	 *            stored offset; timestamps written as dates by earlier versions
+	 *            are accepted, as are offsets without a redo position
+	 */
 	public static Offset fromMap(Map<String, Object> map) {
 		if (map == null || map.keySet().size() == 0) {
 			return DEFAULT_OFFSET;
 		}
 
 		Long mapSystemChangeNumber = map.get(LogMinerSourceConnectorConstants.FIELD_SCN) == null ? null
-				: (Long) map.get(LogMinerSourceConnectorConstants.FIELD_SCN);
+				: ((Number) map.get(LogMinerSourceConnectorConstants.FIELD_SCN)).longValue();
 		Long mapCommitSystemChangeNumber = map.get(LogMinerSourceConnectorConstants.FIELD_COMMIT_SCN) == null ? null
-				: (Long) map.get(LogMinerSourceConnectorConstants.FIELD_COMMIT_SCN);
+				: ((Number) map.get(LogMinerSourceConnectorConstants.FIELD_COMMIT_SCN)).longValue();
 		String mapRowId = map.get(LogMinerSourceConnectorConstants.FIELD_ROW_ID) == null ? null
 				: (String) map.get(LogMinerSourceConnectorConstants.FIELD_ROW_ID);
-		Date mapTimestamp = map.get(LogMinerSourceConnectorConstants.FIELD_TIMESTAMP) == null ? null
-				: (Date) map.get(LogMinerSourceConnectorConstants.FIELD_TIMESTAMP);
+		Object mapTimestamp = map.get(LogMinerSourceConnectorConstants.FIELD_TIMESTAMP);
+		Long timestamp = mapTimestamp instanceof Date ? Long.valueOf(((Date) mapTimestamp).getTime())
+				: mapTimestamp == null ? null : ((Number) mapTimestamp).longValue();
+
+		String mapRedoRecordId = (String) map.get(LogMinerSourceConnectorConstants.FIELD_RS_ID);
+		Long mapSubStatement = map.get(LogMinerSourceConnectorConstants.FIELD_SSN) == null ? null
+				: ((Number) map.get(LogMinerSourceConnectorConstants.FIELD_SSN)).longValue();
 
-		return new Offset(mapSystemChangeNumber, mapCommitSystemChangeNumber, mapRowId, mapTimestamp);
+		return new Offset(mapSystemChangeNumber, mapCommitSystemChangeNumber, mapRowId, timestamp, mapRedoRecordId,
+				mapSubStatement);
 	}
 }
@@ -16,14 +16,20 @@
 
 package io.extr.kafka.connect.logminer.model;
 
+import java.util.Collections;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 
+import io.extr.kafka.connect.logminer.LogMinerSourceConnectorConstants;
+
 public class Table implements Comparable<Table> {
 	private final String databaseName;
 	private final String ownerName;
 	private final String tableName;
 	private final int hash;
+	private final String qName;
+	private final Map<String, String> partition;
 
 	private Long eventCount;
 
@@ -32,7 +38,9 @@ public class Table implements Comparable<Table> {
 		this.ownerName = ownerName == null || ownerName.isEmpty() ? null : ownerName;
 		this.tableName = tableName == null || tableName.isEmpty() ? null : tableName;
 
-		this.hash = Objects.hash(databaseName, ownerName, tableName);
+		this.hash = Objects.hash(this.databaseName, this.ownerName, this.tableName);
+		this.qName = this.databaseName + "." + this.ownerName + "." + this.tableName;
+		this.partition = Collections.singletonMap(LogMinerSourceConnectorConstants.TABLE_NAME_KEY, qName);
 
 		this.eventCount = eventCount == null ? 0L : eventCount;
 	}
@@ -62,7 +70,24 @@ public class Table implements Comparable<Table> {
 	}
 
 	public String getQName() {
-		return String.format("%s.%s.%s", databaseName, ownerName, tableName);
+		return qName;
+	}
+
+	/**
+	 * @return the Connect source partition of the table's events, shared by all
+	 *         of them
+	 */
+	public Map<String, String> getPartition() {
+		return partition;
+	}
+
+	/**
+	 * @return whether the table has these names, treating empty names as absent
+	 *         as the constructor does
+	 */
+	public boolean isNamed(String databaseName, String ownerName, String tableName) {
+		return sameName(this.tableName, tableName) && sameName(this.ownerName, ownerName)
+				&& sameName(this.databaseName, databaseName);
 	}
 
 	public Long getEventCount() {
@@ -102,9 +127,13 @@ public class Table implements Comparable<Table> {
 		return eventCount.compareTo(t.getEventCount());
 	}
 
+	private static boolean sameName(String name, String other) {
+		return name == null ? other == null || other.isEmpty() : name.equals(other);
+	}
+
 	public boolean matches(Set<String> regexes) {
 		for (String regex : regexes) {
-			if (getQName().matches(regex))
+			if (qName.matches(regex))
 				return true;
 		}
 		return false;
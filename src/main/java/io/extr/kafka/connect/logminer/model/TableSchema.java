@@ -0,0 +1,88 @@
+/**
+ * Copyright 2018 David Arnold
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ **/
+
+package io.extr.kafka.connect.logminer.model;
+
+import org.apache.kafka.connect.data.Field;
+import org.apache.kafka.connect.data.Schema;
+import org.apache.kafka.connect.data.SchemaBuilder;
+
+import io.extr.kafka.connect.logminer.ColumnConverter;
+import io.extr.kafka.connect.logminer.LogMinerSourceConnectorConstants;
+
+/**
+ * Row and event schemas of a table at one schema version. Both are built once
+ * and shared by every event of that table and version, so converters that
+ * cache by schema identity see a single instance.
+ */
+public class TableSchema {
+	private final Table table;
+	private final int version;
+	private final Schema rowSchema;
+	private final Schema eventSchema;
+	private final ColumnConverter[] converters;
+
+	public TableSchema(Table table, int version, Schema rowSchema) {
+		this.table = table;
+		this.version = version;
+		this.rowSchema = rowSchema;
+		this.eventSchema = SchemaBuilder.struct()
+				.name(table.getQName() + LogMinerSourceConnectorConstants.EVENT_SCHEMA_QUALIFIER).version(version)
+				.field(LogMinerSourceConnectorConstants.FIELD_SCN, Schema.INT64_SCHEMA)
+				.field(LogMinerSourceConnectorConstants.FIELD_COMMIT_SCN, Schema.INT64_SCHEMA)
+				.field(LogMinerSourceConnectorConstants.FIELD_ROW_ID, Schema.STRING_SCHEMA)
+				.field(LogMinerSourceConnectorConstants.FIELD_SEG_OWNER, Schema.STRING_SCHEMA)
+				.field(LogMinerSourceConnectorConstants.FIELD_TABLE_NAME, Schema.STRING_SCHEMA)
+				.field(LogMinerSourceConnectorConstants.FIELD_TIMESTAMP, org.apache.kafka.connect.data.Timestamp.SCHEMA)
+				.field(LogMinerSourceConnectorConstants.FIELD_SQL_REDO, Schema.STRING_SCHEMA)
+				.field(LogMinerSourceConnectorConstants.FIELD_OPERATION, Schema.STRING_SCHEMA)
+				.field(LogMinerSourceConnectorConstants.FIELD_BEFORE_DATA_ROW, rowSchema)
+				.field(LogMinerSourceConnectorConstants.FIELD_AFTER_DATA_ROW, rowSchema).build();
+
+		this.converters = new ColumnConverter[rowSchema.fields().size()];
+		for (Field field : rowSchema.fields()) {
+			converters[field.index()] = ColumnConverter.forSchema(field.schema());
+		}
+	}
+
+	public Table getTable() {
+		return table;
+	}
+
+	public int getVersion() {
+		return version;
+	}
+
+	public Schema getRowSchema() {
+		return rowSchema;
+	}
+
+	public Schema getEventSchema() {
+		return eventSchema;
+	}
+
+	/**
+	 * @return the converter of the row schema field at {@code index}
+	 */
+	public ColumnConverter getConverter(int index) {
+		return converters[index];
+	}
+
+	@Override
+	public String toString() {
+		return "TableSchema [table=" + table.getQName() + ", version=" + version + "]";
+	}
+}
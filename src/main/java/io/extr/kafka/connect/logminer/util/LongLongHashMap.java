@@ -0,0 +1,149 @@
+/**
+ * Copyright 2018 David Arnold
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ **/
+
+package io.extr.kafka.connect.logminer.util;
+
+import java.util.Arrays;
+
+/**
+ * Open addressing hash map from primitive long keys to primitive long values,
+ * so that per-row lookups on the fetch path neither box nor allocate. Not
+ * thread safe.
+ */
+public class LongLongHashMap {
+	private static final int MAX_CAPACITY = 1 << 30;
+
+	private final long missingValue;
+
+	private long[] keys;
+	private long[] values;
+	private boolean[] used;
+	private int mask;
+	private int size;
+
+	/**
+	 * @param expectedSize number of entries to size the table for
+	 * @param missingValue value returned by {@link #get(long)} for absent keys
+	 */
+	public LongLongHashMap(int expectedSize, long missingValue) {
+		this.missingValue = missingValue;
+		allocate(tableSize(Math.max(expectedSize, 4)));
+	}
+
+	public int size() {
+		return size;
+	}
+
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	public long get(long key) {
+		int i = indexOf(key);
+		return used[i] ? values[i] : missingValue;
+	}
+
+	public boolean containsKey(long key) {
+		return used[indexOf(key)];
+	}
+
+	/**
+	 * @return the previous value for the key, or the missing value
+	 */
+	public long put(long key, long value) {
+		int i = indexOf(key);
+		if (used[i]) {
+			long previous = values[i];
+			values[i] = value;
+			return previous;
+		}
+
+		used[i] = true;
+		keys[i] = key;
+		values[i] = value;
+		if (++size > keys.length >> 1) {
+			rehash(keys.length << 1);
+		}
+		return missingValue;
+	}
+
+	/**
+	 * @return the keys present, in no particular order
+	 */
+	public long[] keys() {
+		long[] result = new long[size];
+		int n = 0;
+		for (int i = 0; i < keys.length; i++) {
+			if (used[i]) {
+				result[n++] = keys[i];
+			}
+		}
+		return result;
+	}
+
+	public void clear() {
+		Arrays.fill(used, false);
+		size = 0;
+	}
+
+	private int indexOf(long key) {
+		int i = hash(key) & mask;
+		while (used[i] && keys[i] != key) {
+			i = (i + 1) & mask;
+		}
+		return i;
+	}
+
+	private void rehash(int capacity) {
+		if (capacity > MAX_CAPACITY) {
+			throw new IllegalStateException("Map capacity exceeded");
+		}
+		long[] oldKeys = keys;
+		long[] oldValues = values;
+		boolean[] oldUsed = used;
+		allocate(capacity);
+		for (int i = 0; i < oldKeys.length; i++) {
+			if (oldUsed[i]) {
+				int j = indexOf(oldKeys[i]);
+				used[j] = true;
+				keys[j] = oldKeys[i];
+				values[j] = oldValues[i];
+			}
+		}
+	}
+
+	private void allocate(int capacity) {
+		keys = new long[capacity];
+		values = new long[capacity];
+		used = new boolean[capacity];
+		mask = capacity - 1;
+	}
+
+	private static int tableSize(int expectedSize) {
+		int capacity = Integer.highestOneBit(expectedSize) << 2;
+		return Math.min(capacity, MAX_CAPACITY);
+	}
+
+	private static int hash(long key) {
+		/* MurmurHash3 64-bit finalizer, spreading sequential object ids */
+		key ^= key >>> 33;
+		key *= 0xff51afd7ed558ccdL;
+		key ^= key >>> 33;
+		key *= 0xc4ceb9fe1a85ec53L;
+		key ^= key >>> 33;
+		return (int) key;
+	}
+}
@@ -0,0 +1,181 @@
+/**
+ * Copyright 2018 David Arnold
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ **/
+
+package io.extr.kafka.connect.logminer.util;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Append-only sequence of length-prefixed records stored in memory-mapped
+ * segment files, read back in the order written. A record that does not fit in
+ * the current segment starts a new one, sized to hold the record if it is
+ * larger than the usual segment size. Not thread safe.
+ * <p>
+ * Mappings are released by the garbage collector, since there is no supported
+ * way to unmap them; segment files are deleted on {@link #close()} and, where
+ * the platform refuses to delete a mapped file, when the JVM exits.
+ */
+public class MappedSegmentFile implements Closeable {
+	private static final Logger LOGGER = LoggerFactory.getLogger(MappedSegmentFile.class);
+
+	private final Path directory;
+	private final String prefix;
+	private final int segmentSize;
+
+	private final List<Segment> segments = new ArrayList<>();
+	private Segment current;
+	private long records;
+	private long bytes;
+
+	/**
+	 * @param directory   directory to create segment files in
+	 * @param prefix      segment file name prefix
+	 * @param segmentSize usual segment size in bytes
+	 */
+	public MappedSegmentFile(Path directory, String prefix, int segmentSize) {
+		this.directory = directory;
+		this.prefix = prefix;
+		this.segmentSize = segmentSize;
+	}
+
+	public void append(byte[] record, int length) throws IOException {
+		int required = Integer.BYTES + length;
+		if (current == null || current.buffer.remaining() < required) {
+			current = newSegment(Math.max(segmentSize, required));
+		}
+		current.buffer.putInt(length);
+		current.buffer.put(record, 0, length);
+		records++;
+		bytes += required;
+	}
+
+	/**
+	 * @return number of records written
+	 */
+	public long getRecords() {
+		return records;
+	}
+
+	/**
+	 * @return bytes written, including record headers
+	 */
+	public long getBytes() {
+		return bytes;
+	}
+
+	/**
+	 * @return the records in the order written, each a buffer positioned at its
+	 *         first byte and limited to its length
+	 */
+	public Iterator<ByteBuffer> records() {
+		return new Iterator<ByteBuffer>() {
+			private int segment;
+			private ByteBuffer reader;
+
+			@Override
+			public boolean hasNext() {
+				while (reader == null || !reader.hasRemaining()) {
+					if (segment >= segments.size()) {
+						return false;
+					}
+					Segment s = segments.get(segment++);
+					reader = s.buffer.duplicate();
+					reader.flip();
+				}
+				return true;
+			}
+
+			@Override
+			public ByteBuffer next() {
+				if (!hasNext()) {
+					throw new NoSuchElementException();
+				}
+				int length = reader.getInt();
+				ByteBuffer record = reader.slice();
+				record.limit(length);
+				reader.position(reader.position() + length);
+				return record;
+			}
+		};
+	}
+
+	/**
+	 * Release and delete all segment files
+	 */
+	@Override
+	public void close() {
+		for (Segment segment : segments) {
+			try {
+				segment.channel.close();
+			} catch (IOException e) {
+				LOGGER.warn("Ignoring error closing spill segment {}", segment.path, e);
+			}
+			try {
+				Files.deleteIfExists(segment.path);
+			} catch (IOException e) {
+				LOGGER.debug("Cannot delete spill segment {} yet, deleting on exit", segment.path);
+				segment.path.toFile().deleteOnExit();
+			}
+		}
+		segments.clear();
+		current = null;
+		records = 0L;
+		bytes = 0L;
+	}
+
+	private Segment newSegment(int size) throws IOException {
+		Path path = Files.createTempFile(directory, prefix, ".seg");
+		FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+		MappedByteBuffer buffer;
+		try {
+			buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+		} catch (IOException e) {
+			channel.close();
+			Files.deleteIfExists(path);
+			throw e;
+		}
+		LOGGER.trace("Created {} byte spill segment {}", size, path);
+		Segment segment = new Segment(path, channel, buffer);
+		segments.add(segment);
+		return segment;
+	}
+
+	private static final class Segment {
+		private final Path path;
+		private final FileChannel channel;
+		private final MappedByteBuffer buffer;
+
+		private Segment(Path path, FileChannel channel, MappedByteBuffer buffer) {
+			this.path = path;
+			this.channel = channel;
+			this.buffer = buffer;
+		}
+	}
+}
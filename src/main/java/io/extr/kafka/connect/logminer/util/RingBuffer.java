@@ -0,0 +1,204 @@
+/**
+ * Copyright 2018 David Arnold
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ **/
+
+package io.extr.kafka.connect.logminer.util;
+
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Bounded, lock-free single producer / single consumer ring buffer. Exactly one
+ * thread may offer elements and exactly one (other) thread may take them; the
+ * timed variants park the calling thread rather than spinning while the buffer
+ * is full or empty.
+ * 
+ * @param <E> element type
+ */
+public class RingBuffer<E> {
+	private final Object[] elements;
+	private final int mask;
+
+	/* Sequence of the next element to be read, only written by the consumer */
+	private final AtomicLong head = new AtomicLong();
+	/* Sequence of the next element to be written, only written by the producer */
+	private final AtomicLong tail = new AtomicLong();
+
+	private volatile Thread waitingProducer;
+	private volatile Thread waitingConsumer;
+
+	/**
+	 * @param capacity minimum capacity, rounded up to the next power of two
+	 */
+	public RingBuffer(int capacity) {
+		if (capacity < 1 || capacity > 1 << 30) {
+			throw new IllegalArgumentException("Invalid ring buffer capacity " + capacity);
+		}
+		int size = Integer.highestOneBit(capacity);
+		if (size < capacity) {
+			size <<= 1;
+		}
+		this.elements = new Object[size];
+		this.mask = size - 1;
+	}
+
+	public int capacity() {
+		return elements.length;
+	}
+
+	public int size() {
+		return (int) (tail.get() - head.get());
+	}
+
+	public boolean isEmpty() {
+		return tail.get() == head.get();
+	}
+
+	/**
+	 * Producer side: add an element if there is space
+	 * 
+	 * @param e element
+	 * @return false if the buffer is full
+	 */
+	public boolean offer(E e) {
+		if (e == null) {
+			throw new NullPointerException();
+		}
+		long t = tail.get();
+		if (t - head.get() >= elements.length) {
+			return false;
+		}
+		elements[(int) t & mask] = e;
+		tail.set(t + 1);
+
+		Thread consumer = waitingConsumer;
+		if (consumer != null) {
+			LockSupport.unpark(consumer);
+		}
+		return true;
+	}
+
+	/**
+	 * Producer side: add an element, waiting up to the given time for space to
+	 * become available
+	 * 
+	 * @return false if the buffer remained full for the whole timeout
+	 * @throws InterruptedException
+	 */
+	public boolean offer(E e, long timeout, TimeUnit unit) throws InterruptedException {
+		if (offer(e)) {
+			return true;
+		}
+		long deadline = System.nanoTime() + unit.toNanos(timeout);
+		waitingProducer = Thread.currentThread();
+		try {
+			while (!offer(e)) {
+				long remaining = deadline - System.nanoTime();
+				if (remaining <= 0) {
+					return false;
+				}
+				LockSupport.parkNanos(this, remaining);
+				if (Thread.interrupted()) {
+					throw new InterruptedException();
+				}
+			}
+			return true;
+		} finally {
+			waitingProducer = null;
+		}
+	}
+
+	/**
+	 * Consumer side: remove the oldest element
+	 * 
+	 * @return element, or null if the buffer is empty
+	 */
+	@SuppressWarnings("unchecked")
+	public E poll() {
+		long h = head.get();
+		if (h == tail.get()) {
+			return null;
+		}
+		int index = (int) h & mask;
+		E e = (E) elements[index];
+		elements[index] = null;
+		head.set(h + 1);
+
+		Thread producer = waitingProducer;
+		if (producer != null) {
+			LockSupport.unpark(producer);
+		}
+		return e;
+	}
+
+	/**
+	 * Consumer side: move up to maxElements available elements into the supplied
+	 * collection without waiting
+	 * 
+	 * @return number of elements moved
+	 */
+	@SuppressWarnings("unchecked")
+	public int drainTo(Collection<? super E> c, int maxElements) {
+		long h = head.get();
+		int available = (int) Math.min(tail.get() - h, maxElements);
+		for (int i = 0; i < available; i++) {
+			int index = (int) (h + i) & mask;
+			c.add((E) elements[index]);
+			elements[index] = null;
+		}
+		if (available > 0) {
+			head.set(h + available);
+			Thread producer = waitingProducer;
+			if (producer != null) {
+				LockSupport.unpark(producer);
+			}
+		}
+		return available;
+	}
+
+	/**
+	 * Consumer side: move up to maxElements elements into the supplied collection,
+	 * waiting up to the given time for at least one to become available
+	 * 
+	 * @return number of elements moved, zero if the timeout elapsed
+	 * @throws InterruptedException
+	 */
+	public int drainTo(Collection<? super E> c, int maxElements, long timeout, TimeUnit unit)
+			throws InterruptedException {
+		int drained = drainTo(c, maxElements);
+		if (drained > 0 || maxElements <= 0) {
+			return drained;
+		}
+		long deadline = System.nanoTime() + unit.toNanos(timeout);
+		waitingConsumer = Thread.currentThread();
+		try {
+			while (isEmpty()) {
+				long remaining = deadline - System.nanoTime();
+				if (remaining <= 0) {
+					return 0;
+				}
+				LockSupport.parkNanos(this, remaining);
+				if (Thread.interrupted()) {
+					throw new InterruptedException();
+				}
+			}
+		} finally {
+			waitingConsumer = null;
+		}
+		return drainTo(c, maxElements);
+	}
+}
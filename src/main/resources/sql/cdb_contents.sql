@@ -16,33 +16,19 @@
 
 SELECT
     SCN,
-    START_SCN,
     COMMIT_SCN,
     TIMESTAMP,
-    TX_NAME,
     OPERATION,
-    OPERATION_CODE,
     SEG_OWNER,
-    SEG_NAME,
     TABLE_NAME,
-    SEG_TYPE_NAME,
-    TABLE_SPACE,
     ROW_ID,
-    USERNAME,
-    SESSION#,
-    SERIAL#,
-    SESSION_INFO,
-    THREAD#,
-    SEQUENCE#,
-    RBASQN,
-    RBABLK,
     SQL_REDO,
-    RS_ID,
     CSF,
-    INFO,
-    STATUS,
     SRC_CON_ID,
-    SRC_CON_NAME
+    SRC_CON_NAME,
+    DATA_OBJ#,
+    RS_ID,
+    SSN
 FROM
     V$LOGMNR_CONTENTS
 WHERE
@@ -0,0 +1,29 @@
+/**
+ * Copyright 2018 David Arnold
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ **/
+
+SELECT C.NAME,
+O.CON_ID,
+O.OWNER,
+O.OBJECT_NAME,
+O.OBJECT_ID
+FROM CDB_OBJECTS O
+JOIN (
+  SELECT 1 AS CON_ID, DBID, NAME FROM V$DATABASE
+  UNION
+  SELECT CON_ID, DBID, NAME FROM V$PDBS
+) C ON O.CON_ID = C.CON_ID
+WHERE O.OBJECT_TYPE IN ('TABLE', 'TABLE PARTITION', 'TABLE SUBPARTITION')
+AND O.OWNER = ?
@@ -15,31 +15,20 @@
  **/
 
 SELECT
-    THREAD#,
     SCN,
-    START_SCN,
     COMMIT_SCN,
     TIMESTAMP,
-    OPERATION_CODE,
     OPERATION,
-    STATUS,
-    SEG_TYPE_NAME,
-    INFO,
     SEG_OWNER,
     TABLE_NAME,
-    USERNAME,
-    SQL_REDO,
     ROW_ID,
+    SQL_REDO,
     CSF,
-    TABLE_SPACE,
-    SESSION_INFO,
+    SRC_CON_ID,
+    SRC_CON_NAME,
+    DATA_OBJ#,
     RS_ID,
-    RBASQN,
-    RBABLK,
-    SEQUENCE#,
-    TX_NAME,
-    SEG_NAME,
-    SRC_CON_ID
+    SSN
 FROM
     V$LOGMNR_CONTENTS
 WHERE
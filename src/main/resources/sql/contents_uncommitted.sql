@@ -0,0 +1,47 @@
+/**
+ * Copyright 2018 David Arnold
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ **/
+
+SELECT
+    SCN,
+    COMMIT_SCN,
+    TIMESTAMP,
+    OPERATION,
+    SEG_OWNER,
+    TABLE_NAME,
+    ROW_ID,
+    SQL_REDO,
+    CSF,
+    SRC_CON_ID,
+    SRC_CON_NAME,
+    DATA_OBJ#,
+    RS_ID,
+    SSN,
+    OPERATION_CODE,
+    XID
+FROM
+    V$LOGMNR_CONTENTS
+WHERE
+    OPERATION_CODE IN (
+        6,
+        7,
+        36
+    )
+    OR OPERATION_CODE IN (
+        1,
+        2,
+        3
+    )
+    AND 
\ No newline at end of file
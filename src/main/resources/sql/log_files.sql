@@ -0,0 +1,66 @@
+/**
+ * Copyright 2018 David Arnold
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ **/
+
+SELECT
+    NAME,
+    THREAD#,
+    SEQUENCE#
+FROM
+    (
+        SELECT
+            A.NAME,
+            A.THREAD#,
+            A.SEQUENCE#,
+            A.FIRST_CHANGE#,
+            A.NEXT_CHANGE#,
+            1 PRIORITY
+        FROM
+            V$ARCHIVED_LOG A
+        WHERE
+            A.NAME IS NOT NULL
+            AND A.STANDBY_DEST = 'NO'
+            AND A.DELETED = 'NO'
+            AND A.STATUS = 'A'
+        UNION ALL
+        SELECT
+            MIN(F.MEMBER) NAME,
+            L.THREAD#,
+            L.SEQUENCE#,
+            L.FIRST_CHANGE#,
+            L.NEXT_CHANGE#,
+            2 PRIORITY
+        FROM
+            V$LOG L
+            JOIN V$LOGFILE F ON F.GROUP# = L.GROUP#
+        WHERE
+            L.STATUS IN (
+                'CURRENT',
+                'ACTIVE',
+                'INACTIVE'
+            )
+        GROUP BY
+            L.THREAD#,
+            L.SEQUENCE#,
+            L.FIRST_CHANGE#,
+            L.NEXT_CHANGE#
+    )
+WHERE
+    NEXT_CHANGE# > ?
+    AND FIRST_CHANGE# <= ?
+ORDER BY
+    THREAD#,
+    SEQUENCE#,
+    PRIORITY
\ No newline at end of file
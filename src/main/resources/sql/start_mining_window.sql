@@ -0,0 +1,29 @@
+/**
+ * Copyright 2018 David Arnold
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ **/
+
+begin
+	DBMS_LOGMNR.START_LOGMNR(
+		STARTSCN => ?,
+		ENDSCN => ?,
+		OPTIONS => 
+			DBMS_LOGMNR.SKIP_CORRUPTION
+			+DBMS_LOGMNR.NO_SQL_DELIMITER
+			+DBMS_LOGMNR.NO_ROWID_IN_STMT
+			+DBMS_LOGMNR.DICT_FROM_ONLINE_CATALOG
+			+DBMS_LOGMNR.COMMITTED_DATA_ONLY
+			+DBMS_LOGMNR.STRING_LITERALS_IN_STMT
+	);
+end;
\ No newline at end of file
@@ -0,0 +1,22 @@
+package io.extr.kafka.connect.logminer;
+
+import java.sql.Timestamp;
+
+import org.apache.kafka.connect.data.Schema;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ColumnConverterTest {
+
+	@Test
+	public void testOptionalSchemasConvertLikeRequired() {
+		Assert.assertEquals(42L, ColumnConverter.forSchema(Schema.OPTIONAL_INT64_SCHEMA).convert("42", 0, 2));
+		Assert.assertEquals(42L, ColumnConverter.forSchema(Schema.INT64_SCHEMA).convert("42", 0, 2));
+		Assert.assertEquals((short) 7, ColumnConverter.forSchema(Schema.OPTIONAL_INT16_SCHEMA).convert("7", 0, 1));
+		Assert.assertEquals(1.5d, ColumnConverter.forSchema(Schema.OPTIONAL_FLOAT64_SCHEMA).convert("1.5", 0, 3));
+		Assert.assertEquals(Timestamp.valueOf("2018-01-01 10:00:00"),
+				ColumnConverter.forSchema(LogMinerSourceConnectorConstants.SCEMA_OPTIONAL_TIMESTAMP)
+						.convert("2018-01-01 10:00:00", 0, 19));
+		Assert.assertEquals("x", ColumnConverter.forSchema(Schema.OPTIONAL_STRING_SCHEMA).convert("x", 0, 1));
+	}
+}
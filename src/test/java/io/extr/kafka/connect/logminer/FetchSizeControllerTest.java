@@ -0,0 +1,65 @@
+package io.extr.kafka.connect.logminer;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+public class FetchSizeControllerTest {
+	private static final long ROUND_TRIP = TimeUnit.MILLISECONDS.toNanos(5);
+	private static final long LOCAL_READ = 100L;
+
+	private static void fetch(FetchSizeController controller, int rows, int redoLength) {
+		for (int i = 0; i < rows; i++) {
+			controller.recordNext(i == 0 ? ROUND_TRIP : LOCAL_READ);
+			controller.recordRow(redoLength);
+		}
+	}
+
+	@Test
+	public void testGrowsWhenFetchesAreFull() throws Exception {
+		FetchSizeController controller = new FetchSizeController(100, 10, 1000, 64 * 1024 * 1024,
+				new LogMinerMetrics("test"));
+		for (int i = 0; i < 8; i++) {
+			fetch(controller, 100, 100);
+		}
+		assertEquals(200, controller.adjust(0, 1024));
+	}
+
+	@Test
+	public void testHoldsWhenPollIsBacklogged() throws Exception {
+		FetchSizeController controller = new FetchSizeController(100, 10, 1000, 64 * 1024 * 1024,
+				new LogMinerMetrics("test"));
+		for (int i = 0; i < 8; i++) {
+			fetch(controller, 100, 100);
+		}
+		assertEquals(0, controller.adjust(1000, 1024));
+		assertEquals(100, controller.getFetchSize());
+	}
+
+	@Test
+	public void testShrinksWhenTrafficIsLight() throws Exception {
+		FetchSizeController controller = new FetchSizeController(100, 10, 1000, 64 * 1024 * 1024,
+				new LogMinerMetrics("test"));
+		for (int i = 0; i < 8; i++) {
+			fetch(controller, 2, 100);
+		}
+		assertEquals(50, controller.adjust(0, 1024));
+		for (int i = 0; i < 8; i++) {
+			fetch(controller, 2, 100);
+		}
+		assertEquals(25, controller.adjust(0, 1024));
+	}
+
+	@Test
+	public void testBoundedByBytes() throws Exception {
+		FetchSizeController controller = new FetchSizeController(100, 10, 1000, 1024 * 1024,
+				new LogMinerMetrics("test"));
+		for (int i = 0; i < 8; i++) {
+			fetch(controller, 100, 32 * 1024);
+		}
+		/* ~64KB rows, so a 1MB budget allows 15 rows per fetch */
+		assertEquals(15, controller.adjust(0, 1024));
+	}
+}
@@ -0,0 +1,65 @@
+package io.extr.kafka.connect.logminer;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class LiteralDecoderTest {
+
+	@Test
+	public void testParseLong() {
+		for (String value : new String[] { "0", "7369", "-42", "+5", String.valueOf(Long.MAX_VALUE),
+				String.valueOf(Long.MIN_VALUE) }) {
+			String sql = "x'" + value + "'x";
+			Assert.assertEquals(value, Long.parseLong(value), LiteralDecoder.parseLong(sql, 2, 2 + value.length()));
+		}
+	}
+
+	@Test(expected = NumberFormatException.class)
+	public void testParseLongOverflow() {
+		LiteralDecoder.parseLong("9223372036854775808", 0, 19);
+	}
+
+	@Test(expected = NumberFormatException.class)
+	public void testParseLongOutOfRange() {
+		LiteralDecoder.parseLong("128", 0, 3, Byte.MIN_VALUE, Byte.MAX_VALUE);
+	}
+
+	@Test
+	public void testParseDouble() {
+		for (String value : new String[] { "0", "1.5", "-.25", "3.14159265358979", "0.1", "123456789.123456",
+				"1.7976931348623157E308", "12345678901234567890" }) {
+			Assert.assertEquals(value, Double.parseDouble(value), LiteralDecoder.parseDouble(value, 0, value.length()),
+					0d);
+		}
+	}
+
+	@Test
+	public void testParseTimestamp() {
+		for (String value : new String[] { "2018-01-01 10:00:00", "2018-01-01 10:00:00.250000000",
+				"1999-12-31 23:59:59.5", "2018-01-01 00:00:00.0" }) {
+			Assert.assertEquals(value, Timestamp.valueOf(value),
+					LiteralDecoder.parseTimestamp(value, 0, value.length()));
+		}
+		Assert.assertEquals(Timestamp.valueOf("2018-06-30 00:00:00"),
+				LiteralDecoder.parseTimestamp("2018-06-30", 0, 10));
+	}
+
+	@Test
+	public void testParseTimestampWithOffset() {
+		String value = "2018-01-01 10:00:00.250000000 +01:00";
+		Assert.assertEquals(Timestamp.from(Instant.parse("2018-01-01T09:00:00.250Z")),
+				LiteralDecoder.parseTimestamp(value, 0, value.length()));
+		value = "2018-01-01 10:00:00 -05:30";
+		Assert.assertEquals(Timestamp.from(Instant.parse("2018-01-01T15:30:00Z")),
+				LiteralDecoder.parseTimestamp(value, 0, value.length()));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testParseTimestampOfCall() {
+		String value = "TO_TIMESTAMP_TZ('2018-01-01 10:00:00 +01:00')";
+		LiteralDecoder.parseTimestamp(value, 0, value.length());
+	}
+}
@@ -0,0 +1,136 @@
+package io.extr.kafka.connect.logminer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.kafka.common.config.Config;
+import org.apache.kafka.common.config.ConfigValue;
+import org.junit.Test;
+
+public class LogMinerSourceConnectorTest {
+	private static List<String> errors(Map<String, String> props, String name) {
+		Config config = new LogMinerSourceConnector().validate(props);
+		for (ConfigValue value : config.configValues()) {
+			if (value.name().equals(name)) {
+				return value.errorMessages();
+			}
+		}
+		throw new AssertionError("No setting " + name);
+	}
+
+	@Test
+	public void testFetchSizeBoundsAccepted() throws Exception {
+		Map<String, String> props = new HashMap<>();
+		props.put(LogMinerSourceConnectorConfig.DB_FETCH_SIZE_MIN_CONFIG, "100");
+		props.put(LogMinerSourceConnectorConfig.DB_FETCH_SIZE_MAX_CONFIG, "100");
+		assertTrue(errors(props, LogMinerSourceConnectorConfig.DB_FETCH_SIZE_MAX_CONFIG).isEmpty());
+	}
+
+	@Test
+	public void testFetchSizeMaxBelowMinRejected() throws Exception {
+		Map<String, String> props = new HashMap<>();
+		props.put(LogMinerSourceConnectorConfig.DB_FETCH_SIZE_MIN_CONFIG, "100");
+		props.put(LogMinerSourceConnectorConfig.DB_FETCH_SIZE_MAX_CONFIG, "10");
+		assertEquals(1, errors(props, LogMinerSourceConnectorConfig.DB_FETCH_SIZE_MAX_CONFIG).size());
+	}
+
+	@Test
+	public void testFetchSizeBelowOneRejected() throws Exception {
+		Map<String, String> props = new HashMap<>();
+		props.put(LogMinerSourceConnectorConfig.DB_FETCH_SIZE_MIN_CONFIG, "0");
+		assertEquals(1, errors(props, LogMinerSourceConnectorConfig.DB_FETCH_SIZE_MIN_CONFIG).size());
+		assertTrue(errors(props, LogMinerSourceConnectorConfig.DB_FETCH_SIZE_MAX_CONFIG).isEmpty());
+	}
+
+	@Test
+	public void testFetchMaxBytesBelowOneRejected() throws Exception {
+		Map<String, String> props = new HashMap<>();
+		props.put(LogMinerSourceConnectorConfig.DB_FETCH_MAX_BYTES_CONFIG, "0");
+		assertEquals(1, errors(props, LogMinerSourceConnectorConfig.DB_FETCH_MAX_BYTES_CONFIG).size());
+	}
+
+	@Test
+	public void testWindowedMiningOfCommittedDataRejected() throws Exception {
+		Map<String, String> props = new HashMap<>();
+		props.put(LogMinerSourceConnectorConfig.MINING_MODE_CONFIG, LogMinerSourceConnectorConfig.MINING_MODE_WINDOWED);
+		assertEquals(1, errors(props, LogMinerSourceConnectorConfig.MINING_MODE_CONFIG).size());
+
+		props.put(LogMinerSourceConnectorConfig.MINING_COMMITTED_ONLY_CONFIG, "false");
+		assertTrue(errors(props, LogMinerSourceConnectorConfig.MINING_MODE_CONFIG).isEmpty());
+	}
+
+	@Test
+	public void testWatermarkOfCommittedDataRejected() throws Exception {
+		Map<String, String> props = new HashMap<>();
+		props.put(LogMinerSourceConnectorConfig.WATERMARK_TOPIC_CONFIG, "db.watermark");
+		assertEquals(1, errors(props, LogMinerSourceConnectorConfig.WATERMARK_TOPIC_CONFIG).size());
+
+		props.put(LogMinerSourceConnectorConfig.MINING_COMMITTED_ONLY_CONFIG, "false");
+		assertTrue(errors(props, LogMinerSourceConnectorConfig.WATERMARK_TOPIC_CONFIG).isEmpty());
+	}
+
+	@Test
+	public void testHeartbeatOfCommittedDataRejected() throws Exception {
+		Map<String, String> props = new HashMap<>();
+		props.put(LogMinerSourceConnectorConfig.HEARTBEAT_INTERVAL_CONFIG, "10000");
+		assertEquals(1, errors(props, LogMinerSourceConnectorConfig.HEARTBEAT_INTERVAL_CONFIG).size());
+
+		props.put(LogMinerSourceConnectorConfig.MINING_COMMITTED_ONLY_CONFIG, "false");
+		assertTrue(errors(props, LogMinerSourceConnectorConfig.HEARTBEAT_INTERVAL_CONFIG).isEmpty());
+
+		props.put(LogMinerSourceConnectorConfig.HEARTBEAT_INTERVAL_CONFIG, "0");
+		props.remove(LogMinerSourceConnectorConfig.MINING_COMMITTED_ONLY_CONFIG);
+		assertTrue(errors(props, LogMinerSourceConnectorConfig.HEARTBEAT_INTERVAL_CONFIG).isEmpty());
+	}
+
+	@Test
+	public void testBatchLatencyBelowOneRejected() throws Exception {
+		Map<String, String> props = new HashMap<>();
+		props.put(LogMinerSourceConnectorConfig.MAX_BATCH_LATENCY_CONFIG, "0");
+		assertEquals(1, errors(props, LogMinerSourceConnectorConfig.MAX_BATCH_LATENCY_CONFIG).size());
+
+		props.put(LogMinerSourceConnectorConfig.MAX_BATCH_LATENCY_CONFIG, "1");
+		assertTrue(errors(props, LogMinerSourceConnectorConfig.MAX_BATCH_LATENCY_CONFIG).isEmpty());
+	}
+
+	@Test
+	public void testWindowBoundsValidated() throws Exception {
+		Map<String, String> props = new HashMap<>();
+		props.put(LogMinerSourceConnectorConfig.MINING_WINDOW_MIN_CONFIG, "0");
+		props.put(LogMinerSourceConnectorConfig.MINING_WINDOW_TARGET_CONFIG, "0");
+		props.put(LogMinerSourceConnectorConfig.MINING_WINDOW_POLL_INTERVAL_CONFIG, "-1");
+		assertEquals(1, errors(props, LogMinerSourceConnectorConfig.MINING_WINDOW_MIN_CONFIG).size());
+		assertEquals(1, errors(props, LogMinerSourceConnectorConfig.MINING_WINDOW_TARGET_CONFIG).size());
+		assertEquals(1, errors(props, LogMinerSourceConnectorConfig.MINING_WINDOW_POLL_INTERVAL_CONFIG).size());
+
+		props.clear();
+		props.put(LogMinerSourceConnectorConfig.MINING_WINDOW_MIN_CONFIG, "5000");
+		props.put(LogMinerSourceConnectorConfig.MINING_WINDOW_MAX_CONFIG, "1000");
+		assertEquals(1, errors(props, LogMinerSourceConnectorConfig.MINING_WINDOW_MAX_CONFIG).size());
+	}
+
+	@Test
+	public void testTransactionBufferBelowOneRejected() throws Exception {
+		Map<String, String> props = new HashMap<>();
+		props.put(LogMinerSourceConnectorConfig.TRANSACTION_BUFFER_MAX_BYTES_CONFIG, "0");
+		assertEquals(1, errors(props, LogMinerSourceConnectorConfig.TRANSACTION_BUFFER_MAX_BYTES_CONFIG).size());
+	}
+
+	@Test
+	public void testSpillThresholdValidated() throws Exception {
+		Map<String, String> props = new HashMap<>();
+		props.put(LogMinerSourceConnectorConfig.TRANSACTION_SPILL_THRESHOLD_BYTES_CONFIG, "0");
+		assertEquals(1, errors(props, LogMinerSourceConnectorConfig.TRANSACTION_SPILL_THRESHOLD_BYTES_CONFIG).size());
+
+		props.put(LogMinerSourceConnectorConfig.TRANSACTION_SPILL_THRESHOLD_BYTES_CONFIG, "2048");
+		props.put(LogMinerSourceConnectorConfig.TRANSACTION_BUFFER_MAX_BYTES_CONFIG, "1024");
+		assertEquals(1, errors(props, LogMinerSourceConnectorConfig.TRANSACTION_SPILL_THRESHOLD_BYTES_CONFIG).size());
+
+		props.put(LogMinerSourceConnectorConfig.TRANSACTION_BUFFER_MAX_BYTES_CONFIG, "2048");
+		assertTrue(errors(props, LogMinerSourceConnectorConfig.TRANSACTION_SPILL_THRESHOLD_BYTES_CONFIG).isEmpty());
+	}
+}
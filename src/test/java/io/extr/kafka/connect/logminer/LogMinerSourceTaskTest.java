@@ -0,0 +1,85 @@
+package io.extr.kafka.connect.logminer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.kafka.connect.storage.OffsetStorageReader;
+import org.junit.Test;
+
+import io.extr.kafka.connect.logminer.model.Offset;
+import io.extr.kafka.connect.logminer.model.Table;
+
+public class LogMinerSourceTaskTest {
+	@Test
+	public void testWatermarkIdIgnoresTableOrder() throws Exception {
+		assertEquals(LogMinerSourceTask.getWatermarkId(Arrays.asList("DB.HR.EMP", "DB.HR.DEPT")),
+				LogMinerSourceTask.getWatermarkId(Arrays.asList("DB.HR.DEPT", "DB.HR.EMP")));
+	}
+
+	@Test
+	public void testWatermarkIdChangesWithTables() throws Exception {
+		assertNotEquals(LogMinerSourceTask.getWatermarkId(Arrays.asList("DB.HR.EMP", "DB.HR.DEPT")),
+				LogMinerSourceTask.getWatermarkId(Arrays.asList("DB.HR.EMP")));
+	}
+
+	private static final Map<String, String> TABLE_PARTITION = Collections
+			.singletonMap(LogMinerSourceConnectorConstants.TABLE_NAME_KEY, "DB.HR.EMP");
+	private static final Map<String, String> WATERMARK_PARTITION = Collections
+			.singletonMap(LogMinerSourceConnectorConstants.WATERMARK_KEY, "w");
+	private static final List<Map<String, String>> PARTITIONS = Arrays.asList(TABLE_PARTITION, WATERMARK_PARTITION);
+
+	/**
+	 * Offset reader returning every requested partition, as Connect does, with
+	 * a null value for those without a stored offset
+	 */
+	private static OffsetStorageReader reader(Map<Map<String, String>, Map<String, Object>> stored) {
+		return new OffsetStorageReader() {
+			@Override
+			public <T> Map<String, Object> offset(Map<String, T> partition) {
+				return stored.get(partition);
+			}
+
+			@Override
+			@SuppressWarnings("unchecked")
+			public <T> Map<Map<String, T>, Map<String, Object>> offsets(Collection<Map<String, T>> partitions) {
+				Map<Map<String, T>, Map<String, Object>> offsets = new HashMap<>();
+				for (Map<String, T> partition : partitions) {
+					offsets.put(partition, stored.get((Map<String, String>) (Map<String, ?>) partition));
+				}
+				return offsets;
+			}
+		};
+	}
+
+	@Test
+	public void testMissingWatermarkIsNotResumedFrom() throws Exception {
+		Map<Table, Offset> state = new HashMap<>();
+		assertNull(LogMinerSourceTask.readOffsets(reader(Collections.emptyMap()), PARTITIONS, state));
+		assertEquals(1, state.size());
+	}
+
+	@Test
+	public void testZeroWatermarkIsNotResumedFrom() throws Exception {
+		Map<Map<String, String>, Map<String, Object>> stored = new HashMap<>();
+		stored.put(WATERMARK_PARTITION, Collections.singletonMap(LogMinerSourceConnectorConstants.FIELD_SCN, 0L));
+		assertNull(LogMinerSourceTask.readOffsets(reader(stored), PARTITIONS, new HashMap<>()));
+	}
+
+	@Test
+	public void testStoredWatermarkIsResumedFrom() throws Exception {
+		Map<Map<String, String>, Map<String, Object>> stored = new HashMap<>();
+		stored.put(TABLE_PARTITION, new Offset(90L, 95L, null, 0L).toMap());
+		stored.put(WATERMARK_PARTITION, Collections.singletonMap(LogMinerSourceConnectorConstants.FIELD_SCN, 100L));
+		Map<Table, Offset> state = new HashMap<>();
+		assertEquals(Long.valueOf(100L), LogMinerSourceTask.readOffsets(reader(stored), PARTITIONS, state));
+		assertEquals(Long.valueOf(95L), state.get(Table.fromQName("DB.HR.EMP")).getCommitSystemChangeNumber());
+	}
+}
@@ -0,0 +1,94 @@
+package io.extr.kafka.connect.logminer;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import io.extr.kafka.connect.logminer.RedoSQLDecoder.ColumnValues;
+
+public class RedoSQLDecoderTest {
+	private static final String[] STATEMENTS = {
+			"insert into \"SCOTT\".\"EMP\"(\"EMPNO\",\"ENAME\",\"JOB\",\"MGR\") values ('7369','SMITH','CLERK',NULL)",
+			"insert into \"SCOTT\".\"EMP\"(\"EMPNO\",\"UPDATED\") values ('1',TIMESTAMP ' 2018-01-01 10:00:00.000')",
+			"update \"SCOTT\".\"EMP\" set \"ENAME\" = 'JONES', \"MGR\" = NULL"
+					+ " where \"ENAME\" = 'SMITH' and \"MGR\" IS NULL",
+			"delete from \"SCOTT\".\"EMP\" where \"EMPNO\" = '7369' and \"ENAME\" = 'SMITH' and \"COMM\" IS NULL" };
+
+	@Test
+	public void testMatchesSQLParser() throws Exception {
+		RedoSQLDecoder decoder = new RedoSQLDecoder();
+		for (String sql : STATEMENTS) {
+			Assert.assertTrue(sql, decoder.decode(sql));
+			Map<String, Map<String, String>> expected = LogMinerSQLParser.parseRedoSQL(sql);
+			Assert.assertEquals(sql, withNulls(expected.get(LogMinerSourceConnectorConstants.FIELD_BEFORE_DATA_ROW)),
+					toMap(decoder.getBefore()));
+			Assert.assertEquals(sql, withNulls(expected.get(LogMinerSourceConnectorConstants.FIELD_AFTER_DATA_ROW)),
+					toMap(decoder.getAfter()));
+		}
+	}
+
+	@Test
+	public void testEscapedQuotes() throws Exception {
+		RedoSQLDecoder decoder = new RedoSQLDecoder();
+		Assert.assertTrue(decoder.decode("insert into \"S\".\"T\"(\"A\") values ('it''s')"));
+		Assert.assertEquals("it's", decoder.getAfter().getValue(0));
+	}
+
+	@Test
+	public void testFunctionLiterals() throws Exception {
+		RedoSQLDecoder decoder = new RedoSQLDecoder();
+		Assert.assertTrue(decoder.decode("insert into \"S\".\"T\"(\"A\",\"B\",\"C\",\"D\") values "
+				+ "(TO_DATE('1980-12-17 00:00:00', 'YYYY-MM-DD HH24:MI:SS'),"
+				+ "TO_TIMESTAMP('2018-01-01 10:00:00.250000000'),HEXTORAW('0a'),EMPTY_CLOB())"));
+		Assert.assertEquals("1980-12-17 00:00:00", decoder.getAfter().getValue(0));
+		Assert.assertEquals("2018-01-01 10:00:00.250000000", decoder.getAfter().getValue(1));
+		Assert.assertEquals("0a", decoder.getAfter().getValue(2));
+		Assert.assertEquals("EMPTY_CLOB()", decoder.getAfter().getValue(3));
+	}
+
+	@Test
+	public void testTimeZoneLiteral() throws Exception {
+		RedoSQLDecoder decoder = new RedoSQLDecoder();
+		Assert.assertTrue(decoder.decode("update \"S\".\"T\" set \"A\" = "
+				+ "TO_TIMESTAMP_TZ('2018-01-01 10:00:00.250000000 +01:00') where \"ID\" = '1'"));
+		Assert.assertEquals("2018-01-01 10:00:00.250000000 +01:00", decoder.getAfter().getValue(0));
+		Assert.assertEquals("1", decoder.getBefore().getValue(0));
+	}
+
+	@Test
+	public void testNullKeywordAndLiteral() throws Exception {
+		RedoSQLDecoder decoder = new RedoSQLDecoder();
+		Assert.assertTrue(decoder.decode("insert into \"S\".\"T\"(\"A\",\"B\") values (NULL,'NULL')"));
+		Assert.assertNull(decoder.getAfter().getValue(0));
+		Assert.assertEquals("NULL", decoder.getAfter().getValue(1));
+	}
+
+	@Test
+	public void testFallback() throws Exception {
+		RedoSQLDecoder decoder = new RedoSQLDecoder();
+		String sql = "delete from \"S\".\"T\" where (\"A\" = '1')";
+		Assert.assertFalse(decoder.decode(sql));
+		Assert.assertEquals(1, decoder.getBefore().size());
+		Assert.assertEquals("1", decoder.getBefore().getValue(0));
+		Assert.assertEquals(0, decoder.getAfter().size());
+	}
+
+	private static Map<String, String> withNulls(Map<String, String> parsed) {
+		Map<String, String> map = new LinkedHashMap<>();
+		for (Map.Entry<String, String> entry : parsed.entrySet()) {
+			map.put(entry.getKey(),
+					LogMinerSourceConnectorConstants.NULL_FIELD.equals(entry.getValue()) ? null : entry.getValue());
+		}
+		return map;
+	}
+
+	private static Map<String, String> toMap(ColumnValues values) {
+		Map<String, String> map = new LinkedHashMap<>();
+		for (int i = 0; i < values.size(); i++) {
+			map.put(values.getColumn(i), values.getValue(i));
+		}
+		return map;
+	}
+}
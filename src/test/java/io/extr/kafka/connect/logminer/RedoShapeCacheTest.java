@@ -0,0 +1,74 @@
+package io.extr.kafka.connect.logminer;
+
+import org.apache.kafka.connect.data.Schema;
+import org.apache.kafka.connect.data.SchemaBuilder;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import io.extr.kafka.connect.logminer.model.Table;
+
+public class RedoShapeCacheTest {
+	private static final Table TABLE = new Table("DB", "SCOTT", "EMP", 0L);
+
+	private Schema schema;
+	private LogMinerMetrics metrics;
+	private RedoSQLDecoder decoder;
+
+	@Before
+	public void setUp() {
+		schema = SchemaBuilder.struct().field("EMPNO", Schema.STRING_SCHEMA).field("ENAME", Schema.STRING_SCHEMA)
+				.field("JOB", Schema.STRING_SCHEMA).build();
+		metrics = new LogMinerMetrics("test");
+		decoder = new RedoSQLDecoder();
+	}
+
+	@Test
+	public void testHitOnSameShape() throws Exception {
+		RedoShapeCache cache = new RedoShapeCache(16, metrics);
+		decoder.decode("update \"SCOTT\".\"EMP\" set \"ENAME\" = 'A' where \"EMPNO\" = '1'");
+		RedoShapeCache.Shape first = cache.get(TABLE, schema, decoder);
+		decoder.decode("update \"SCOTT\".\"EMP\" set \"ENAME\" = 'B' where \"EMPNO\" = '2'");
+		RedoShapeCache.Shape second = cache.get(TABLE, schema, decoder);
+
+		Assert.assertSame(first, second);
+		Assert.assertEquals("ENAME", second.getAfterFields()[0].name());
+		Assert.assertEquals("EMPNO", second.getBeforeFields()[0].name());
+		Assert.assertEquals(1, metrics.getShapeCacheHits());
+		Assert.assertEquals(1, metrics.getShapeCacheMisses());
+	}
+
+	@Test
+	public void testMissOnDifferentColumnsOrSchema() throws Exception {
+		RedoShapeCache cache = new RedoShapeCache(16, metrics);
+		decoder.decode("update \"SCOTT\".\"EMP\" set \"ENAME\" = 'A' where \"EMPNO\" = '1'");
+		cache.get(TABLE, schema, decoder);
+		decoder.decode("update \"SCOTT\".\"EMP\" set \"JOB\" = 'A' where \"EMPNO\" = '1'");
+		cache.get(TABLE, schema, decoder);
+		Schema altered = SchemaBuilder.struct().field("EMPNO", Schema.STRING_SCHEMA)
+				.field("JOB", Schema.STRING_SCHEMA).build();
+		cache.get(TABLE, altered, decoder);
+
+		Assert.assertEquals(0, metrics.getShapeCacheHits());
+		Assert.assertEquals(3, metrics.getShapeCacheMisses());
+	}
+
+	@Test
+	public void testEvictsLeastRecentlyUsed() throws Exception {
+		RedoShapeCache cache = new RedoShapeCache(2, metrics);
+		decoder.decode("delete from \"SCOTT\".\"EMP\" where \"EMPNO\" = '1'");
+		cache.get(TABLE, schema, decoder);
+		decoder.decode("delete from \"SCOTT\".\"EMP\" where \"ENAME\" = 'A'");
+		cache.get(TABLE, schema, decoder);
+		decoder.decode("delete from \"SCOTT\".\"EMP\" where \"EMPNO\" = '2'");
+		cache.get(TABLE, schema, decoder);
+		decoder.decode("delete from \"SCOTT\".\"EMP\" where \"JOB\" = 'X'");
+		cache.get(TABLE, schema, decoder);
+		decoder.decode("delete from \"SCOTT\".\"EMP\" where \"ENAME\" = 'B'");
+		cache.get(TABLE, schema, decoder);
+
+		Assert.assertEquals(2, cache.size());
+		Assert.assertEquals(1, metrics.getShapeCacheHits());
+		Assert.assertEquals(4, metrics.getShapeCacheMisses());
+	}
+}
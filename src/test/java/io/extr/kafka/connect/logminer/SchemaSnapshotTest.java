@@ -0,0 +1,102 @@
+package io.extr.kafka.connect.logminer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import io.extr.kafka.connect.logminer.model.Column;
+import io.extr.kafka.connect.logminer.model.Table;
+
+public class SchemaSnapshotTest {
+	private static final Table ORDERS = new Table("ORCL", "SHOP", "ORDERS");
+	private static final Table CUSTOMERS = new Table(null, "SHOP", "CUSTOMERS");
+
+	private Path directory;
+
+	@Before
+	public void setUp() throws Exception {
+		directory = Files.createTempDirectory("schema-snapshot-test");
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		try (Stream<Path> files = Files.list(directory)) {
+			files.forEach(f -> f.toFile().delete());
+		}
+		Files.delete(directory);
+	}
+
+	private static List<Column> columns() {
+		return Arrays.asList(new Column("ID", false, "NUMBER", 10, 0, 10, true, true),
+				new Column("NOTE", true, "VARCHAR2", 200, 0, 0, false, false));
+	}
+
+	@Test
+	public void roundTrip() throws Exception {
+		Path file = SchemaSnapshot.getFile(directory, Arrays.asList(ORDERS, CUSTOMERS));
+		SchemaSnapshot snapshot = new SchemaSnapshot(file);
+		snapshot.load();
+		assertEquals(0, snapshot.size());
+
+		snapshot.put(ORDERS, 1540000000000L, 3, columns());
+		snapshot.put(CUSTOMERS, SchemaSnapshot.UNKNOWN_DDL_TIME, 1, columns().subList(0, 1));
+		snapshot.save();
+
+		SchemaSnapshot loaded = new SchemaSnapshot(file);
+		loaded.load();
+		assertEquals(2, loaded.size());
+		assertEquals(1540000000000L, loaded.get(ORDERS).getLastDdlTime());
+		assertEquals(3, loaded.get(ORDERS).getVersion());
+		assertEquals(columns(), loaded.get(ORDERS).getColumns());
+		assertEquals(SchemaSnapshot.UNKNOWN_DDL_TIME, loaded.get(CUSTOMERS).getLastDdlTime());
+		assertEquals(columns().subList(0, 1), loaded.get(CUSTOMERS).getColumns());
+		assertNull(loaded.get(new Table("ORCL", "SHOP", "ITEMS")));
+	}
+
+	@Test
+	public void fileDependsOnTablesNotTheirOrder() {
+		assertEquals(SchemaSnapshot.getFile(directory, Arrays.asList(ORDERS, CUSTOMERS)),
+				SchemaSnapshot.getFile(directory, Arrays.asList(CUSTOMERS, ORDERS)));
+		assertFalse(SchemaSnapshot.getFile(directory, Arrays.asList(ORDERS, CUSTOMERS))
+				.equals(SchemaSnapshot.getFile(directory, Arrays.asList(ORDERS))));
+	}
+
+	@Test
+	public void unchangedSnapshotIsNotWritten() throws Exception {
+		Path file = SchemaSnapshot.getFile(directory, Arrays.asList(ORDERS));
+		SchemaSnapshot snapshot = new SchemaSnapshot(file);
+		snapshot.load();
+		snapshot.save();
+		assertFalse(Files.exists(file));
+	}
+
+	@Test
+	public void unreadableSnapshotIsIgnored() throws Exception {
+		Path file = SchemaSnapshot.getFile(directory, Arrays.asList(ORDERS));
+		SchemaSnapshot snapshot = new SchemaSnapshot(file);
+		snapshot.put(ORDERS, 1L, 1, columns());
+		snapshot.save();
+
+		byte[] bytes = Files.readAllBytes(file);
+		Files.write(file, Arrays.copyOf(bytes, bytes.length / 2));
+		snapshot.load();
+		assertEquals(0, snapshot.size());
+
+		Files.write(file, "not a snapshot".getBytes(StandardCharsets.UTF_8));
+		snapshot.load();
+		assertEquals(0, snapshot.size());
+		assertTrue(Files.exists(file));
+	}
+}
@@ -0,0 +1,55 @@
+package io.extr.kafka.connect.logminer;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import io.extr.kafka.connect.logminer.dialect.BaseLogMinerDialect;
+import io.extr.kafka.connect.logminer.model.LogMinerRow;
+import io.extr.kafka.connect.logminer.model.Table;
+
+public class TableRegistryTest {
+
+	@Test
+	public void testResolvesCanonicalTable() {
+		TableRegistry registry = new TableRegistry();
+		Table first = registry.resolve(row(BaseLogMinerDialect.objectKey(3, 101), "PDB1", "SCOTT", "EMP"));
+		Table second = registry.resolve(row(BaseLogMinerDialect.objectKey(3, 101), "PDB1", "SCOTT", "EMP"));
+		Table unkeyed = registry.resolve(row(0L, "PDB1", "SCOTT", "EMP"));
+
+		Assert.assertSame(first, second);
+		Assert.assertSame(first, unkeyed);
+		Assert.assertEquals(new Table("PDB1", "SCOTT", "EMP"), first);
+		Assert.assertEquals(1, registry.size());
+	}
+
+	@Test
+	public void testReusedObjectIdResolvesByName() {
+		TableRegistry registry = new TableRegistry();
+		Table dropped = registry.resolve(row(BaseLogMinerDialect.objectKey(0, 7), null, "SCOTT", "OLD"));
+		Table created = registry.resolve(row(BaseLogMinerDialect.objectKey(0, 7), null, "SCOTT", "NEW"));
+
+		Assert.assertNotSame(dropped, created);
+		Assert.assertEquals("NEW", created.getTableName());
+		Assert.assertSame(created, registry.resolve(row(BaseLogMinerDialect.objectKey(0, 7), "", "SCOTT", "NEW")));
+	}
+
+	@Test
+	public void testRegisteredTableIsResolved() {
+		TableRegistry registry = new TableRegistry();
+		Table registered = registry.register(new Table("PDB1", "SCOTT", "DEPT"));
+
+		Assert.assertSame(registered, registry.register(new Table("PDB1", "SCOTT", "DEPT")));
+		Assert.assertSame(registered,
+				registry.resolve(row(BaseLogMinerDialect.objectKey(3, 102), "PDB1", "SCOTT", "DEPT")));
+		Assert.assertEquals(1, registry.size());
+	}
+
+	private static LogMinerRow row(long objectKey, String databaseName, String ownerName, String tableName) {
+		LogMinerRow row = new LogMinerRow();
+		row.setObjectKey(objectKey);
+		row.setDatabaseName(databaseName);
+		row.setOwnerName(ownerName);
+		row.setTableName(tableName);
+		return row;
+	}
+}
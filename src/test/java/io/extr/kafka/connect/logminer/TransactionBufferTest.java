@@ -0,0 +1,135 @@
+package io.extr.kafka.connect.logminer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import io.extr.kafka.connect.logminer.TransactionBuffer.CommittedTransaction;
+import io.extr.kafka.connect.logminer.model.LogMinerRow;
+
+public class TransactionBufferTest {
+	private Path spillDirectory;
+	private LogMinerMetrics metrics;
+
+	@Before
+	public void setUp() throws Exception {
+		spillDirectory = Files.createTempDirectory("txn-buffer-test");
+		metrics = new LogMinerMetrics("test");
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		Files.delete(spillDirectory);
+	}
+
+	private static LogMinerRow row(long scn, String sqlRedo) {
+		LogMinerRow row = new LogMinerRow();
+		row.setSystemChangeNumber(scn);
+		row.setSqlRedo(sqlRedo);
+		return row;
+	}
+
+	private static List<LogMinerRow> read(CommittedTransaction transaction) {
+		List<LogMinerRow> rows = new ArrayList<>();
+		try (CommittedTransaction t = transaction) {
+			for (LogMinerRow row : t) {
+				rows.add(row);
+			}
+		}
+		return rows;
+	}
+
+	@Test
+	public void testCommitReleasesRowsInOrderWithRestartSCN() throws Exception {
+		TransactionBuffer buffer = new TransactionBuffer(Long.MAX_VALUE, Long.MAX_VALUE, spillDirectory, metrics);
+		buffer.start(1L, 100L);
+		buffer.add(1L, row(101L, "insert 1"));
+		buffer.add(2L, row(102L, "insert 2"));
+		buffer.add(1L, row(103L, "update 1"));
+		assertEquals(2, buffer.getOpenTransactions());
+		assertEquals(3L, buffer.getBufferedRows());
+
+		List<LogMinerRow> committed = read(buffer.commit(1L, 110L));
+		assertEquals(2, committed.size());
+		assertEquals("insert 1", committed.get(0).getSqlRedo());
+		assertEquals("update 1", committed.get(1).getSqlRedo());
+		assertEquals(110L, committed.get(0).getCommitSystemChangeNumber());
+		/* Transaction 2 is still open, so mining must restart at its first change */
+		assertEquals(102L, committed.get(0).getRestartSystemChangeNumber());
+
+		committed = read(buffer.commit(2L, 120L));
+		assertEquals(1, committed.size());
+		assertEquals(120L, committed.get(0).getRestartSystemChangeNumber());
+		assertEquals(0, buffer.getOpenTransactions());
+		assertEquals(0L, buffer.getBufferedBytes());
+	}
+
+	@Test
+	public void testRollbackDiscardsRows() throws Exception {
+		TransactionBuffer buffer = new TransactionBuffer(Long.MAX_VALUE, Long.MAX_VALUE, spillDirectory, metrics);
+		buffer.add(1L, row(101L, "insert 1"));
+		buffer.add(1L, row(102L, "insert 2"));
+		assertEquals(2L, buffer.rollback(1L));
+		assertTrue(read(buffer.commit(1L, 110L)).isEmpty());
+		assertEquals(0L, buffer.getBufferedRows());
+	}
+
+	@Test
+	public void testMemoryLimit() throws Exception {
+		TransactionBuffer buffer = new TransactionBuffer(1000L, Long.MAX_VALUE, spillDirectory, metrics);
+		buffer.add(1L, row(101L, "insert"));
+		assertFalse(buffer.isOverLimit());
+		buffer.add(1L, row(102L, new String(new char[1000])));
+		assertTrue(buffer.isOverLimit());
+		buffer.rollback(1L);
+		assertFalse(buffer.isOverLimit());
+	}
+
+	@Test
+	public void testSpilledTransactionStreamsBackInOrder() throws Exception {
+		TransactionBuffer buffer = new TransactionBuffer(1000L, 1000L, spillDirectory, metrics);
+		Timestamp timestamp = Timestamp.valueOf("2018-06-01 12:34:56.789");
+		for (long scn = 1; scn <= 1000; scn++) {
+			LogMinerRow row = row(scn, "insert into \"T\" values ('" + scn + "', 'é')");
+			row.setOwnerName("OWNER");
+			row.setObjectKey(scn * 7);
+			row.setTimestamp(timestamp);
+			buffer.add(1L, row);
+		}
+		buffer.add(2L, row(2000L, "rolled back"));
+		assertFalse(buffer.isOverLimit());
+		assertTrue(buffer.getSpilledBytes() > 0);
+		assertEquals(1L, metrics.getSpilledTransactions());
+		assertEquals(1, Files.list(spillDirectory).count());
+
+		CommittedTransaction transaction = buffer.commit(1L, 5000L);
+		assertTrue(transaction.isSpilled());
+		List<LogMinerRow> committed = read(transaction);
+		assertEquals(1000, committed.size());
+		for (int i = 0; i < 1000; i++) {
+			LogMinerRow row = committed.get(i);
+			assertEquals(i + 1, row.getSystemChangeNumber());
+			assertEquals((i + 1) * 7L, row.getObjectKey());
+			assertEquals("insert into \"T\" values ('" + (i + 1) + "', 'é')", row.getSqlRedo());
+			assertEquals("OWNER", row.getOwnerName());
+			assertNull(row.getTableName());
+			assertEquals(timestamp, row.getTimestamp());
+			assertEquals(5000L, row.getCommitSystemChangeNumber());
+			assertEquals(2000L, row.getRestartSystemChangeNumber());
+		}
+		assertEquals(0L, buffer.getSpilledBytes());
+		assertEquals(0, Files.list(spillDirectory).count());
+		buffer.close();
+	}
+}
@@ -5,6 +5,8 @@ import static org.junit.Assert.assertNotNull;
 import java.util.Collections;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 
 import org.junit.Test;
 
@@ -29,6 +31,39 @@ public class ModelTests {
 	public void testOffsetFromMap() throws Exception {
 		Offset o = Offset.fromMap(Collections.EMPTY_MAP);
 		assertNotNull(o);
-		assertEquals(new Long(0L), o.getCommitSystemChangeNumber());
+		assertEquals(Long.valueOf(0L), o.getCommitSystemChangeNumber());
+	}
+
+	@Test
+	public void testOffsetRedoPositionRoundTrip() throws Exception {
+		Offset o = Offset.fromMap(new Offset(10L, 20L, "AAA", 1000L, "0x00005c.00000142.0010", 3L).toMap());
+		assertEquals("0x00005c.00000142.0010", o.getRedoRecordId());
+		assertEquals(Long.valueOf(3L), o.getSubStatement());
+		assertEquals(Long.valueOf(20L), o.getCommitSystemChangeNumber());
+	}
+
+	@Test
+	public void testOffsetCoversEarlierPositions() throws Exception {
+		Offset o = new Offset(10L, 20L, null, null, "0x00005c.00000142.0010", 3L);
+		assertTrue(o.covers(19L, "0x00005d.00000001.0010", 9L));
+		assertTrue(o.covers(20L, "0x00005c.00000141.01f0", 9L));
+		assertTrue(o.covers(20L, "0x00005c.00000142.0010", 3L));
+		assertFalse(o.covers(20L, "0x00005c.00000142.0010", 4L));
+		assertFalse(o.covers(20L, "0x00005c.00000142.0014", 0L));
+		assertFalse(o.covers(20L, "0x1000000.00000001.0010", 0L));
+		assertFalse(o.covers(21L, "0x00005c.00000001.0010", 0L));
+	}
+
+	@Test
+	public void testOffsetWithoutRedoPositionCoversNothing() throws Exception {
+		Offset o = new Offset(10L, 20L, null, (Long) null);
+		assertFalse(o.covers(19L, "0x00005c.00000142.0010", 0L));
+	}
+
+	@Test
+	public void testCompareRedoRecordIds() throws Exception {
+		assertEquals(0, Offset.compareRedoRecordIds("0x00005C.00000142.0010", "0x00005c.00000142.0010"));
+		assertTrue(Offset.compareRedoRecordIds("0x00005c.00000142.0010", "0x00005c.00000143.0000") < 0);
+		assertTrue(Offset.compareRedoRecordIds("0xffffff.00000142.0010", "0x1000000.00000001.0000") < 0);
 	}
 }
@@ -0,0 +1,48 @@
+package io.extr.kafka.connect.logminer.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+
+import org.junit.Test;
+
+public class LongLongHashMapTest {
+	@Test
+	public void testPutGetAndMissingValue() throws Exception {
+		LongLongHashMap map = new LongLongHashMap(2, -1L);
+		assertEquals(-1L, map.get(0L));
+		assertFalse(map.containsKey(0L));
+
+		assertEquals(-1L, map.put(0L, 10L));
+		assertEquals(-1L, map.put((7L << 32) | 12345L, 20L));
+		assertEquals(10L, map.put(0L, 11L));
+
+		assertEquals(2, map.size());
+		assertEquals(11L, map.get(0L));
+		assertEquals(20L, map.get((7L << 32) | 12345L));
+		assertEquals(-1L, map.get(12345L));
+	}
+
+	@Test
+	public void testGrowsPastExpectedSize() throws Exception {
+		LongLongHashMap map = new LongLongHashMap(4, Long.MIN_VALUE);
+		for (long k = 1; k <= 10000; k++) {
+			map.put(k * 31, k);
+		}
+		assertEquals(10000, map.size());
+		for (long k = 1; k <= 10000; k++) {
+			assertEquals(k, map.get(k * 31));
+		}
+
+		long[] keys = map.keys();
+		Arrays.sort(keys);
+		assertEquals(10000, keys.length);
+		assertEquals(31L, keys[0]);
+
+		map.clear();
+		assertTrue(map.isEmpty());
+		assertEquals(Long.MIN_VALUE, map.get(31L));
+	}
+}
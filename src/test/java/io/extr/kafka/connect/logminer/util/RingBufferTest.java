@@ -0,0 +1,73 @@
+package io.extr.kafka.connect.logminer.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+public class RingBufferTest {
+	@Test
+	public void testCapacityRoundsUpToPowerOfTwo() throws Exception {
+		assertEquals(8, new RingBuffer<Integer>(5).capacity());
+		assertEquals(8, new RingBuffer<Integer>(8).capacity());
+		assertEquals(1, new RingBuffer<Integer>(1).capacity());
+	}
+
+	@Test
+	public void testOfferAndPollInOrder() throws Exception {
+		RingBuffer<Integer> buffer = new RingBuffer<>(4);
+		for (int i = 0; i < 4; i++) {
+			assertTrue(buffer.offer(i));
+		}
+		assertFalse(buffer.offer(4));
+		assertFalse(buffer.offer(4, 10, TimeUnit.MILLISECONDS));
+		assertEquals(4, buffer.size());
+
+		for (int i = 0; i < 4; i++) {
+			assertEquals(Integer.valueOf(i), buffer.poll());
+		}
+		assertNull(buffer.poll());
+		assertTrue(buffer.isEmpty());
+	}
+
+	@Test
+	public void testTimedDrainOnEmptyBuffer() throws Exception {
+		RingBuffer<Integer> buffer = new RingBuffer<>(4);
+		List<Integer> drained = new ArrayList<>();
+		assertEquals(0, buffer.drainTo(drained, 4, 10, TimeUnit.MILLISECONDS));
+		assertTrue(drained.isEmpty());
+	}
+
+	@Test
+	public void testProducerConsumerHandoff() throws Exception {
+		final int count = 100000;
+		final RingBuffer<Integer> buffer = new RingBuffer<>(64);
+		Thread producer = new Thread(() -> {
+			try {
+				for (int i = 0; i < count; i++) {
+					while (!buffer.offer(i, 100, TimeUnit.MILLISECONDS)) {
+					}
+				}
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		});
+		producer.start();
+
+		List<Integer> drained = new ArrayList<>(count);
+		while (drained.size() < count) {
+			buffer.drainTo(drained, 50, 100, TimeUnit.MILLISECONDS);
+		}
+		producer.join();
+
+		for (int i = 0; i < count; i++) {
+			assertEquals(i, drained.get(i).intValue());
+		}
+	}
+}